@@ -16,10 +16,7 @@
 // along with this program. If not, see <https://www.gnu.org/licenses/>.
 package de.hechler.patrick.gui.layout;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
 /**
  * a {@link BlockInfo} instance stores the {@link #max() maximum} and {@link #min() minimum} size of a single row/column
@@ -32,22 +29,18 @@ import java.util.regex.Pattern;
  * </ul>
  * note that {@link BlockInfo} instances are modifiable (the {@link #max() maximum} and {@link #min() minimum} size can
  * be set with the {@link #set(int, int)} method)
+ * <p>
+ * the parsed blocks are created with {@link #set(int, int)}, so a {@code [grow]} block has the minimum {@code 0} and
+ * the maximum {@link #MAX_SIZE} like a {@code [0, grow]} block (older versions stored {@link #DYNAMIC} for both
+ * values). blocks with two single digit values and a one character separator (like {@code [0,0]}, {@code [0 0]} or
+ * {@code [0,0\t]}) and blocks with an upper case {@code PX} suffix were accepted by the validation, but failed with an
+ * exception when they were parsed. they are now parsed as documented
  * 
  * @author Patrick Hechler
  */
 public class BlockInfo {
 	
-	private static final String  GROW            = "grow";
-	private static final String  NUM             = "(" + CompInfo.NUMBER + "(px)?)";
-	private static final String  OPT_COMMA_SEP   = "(,\\s*|\\s+,?\\s*)";
-	private static final Pattern P_OPT_COMMA_SEP = Pattern.compile(OPT_COMMA_SEP, Pattern.CASE_INSENSITIVE);
-	
-	private static final String  CONTENT = GROW + "|" + NUM + "(" + OPT_COMMA_SEP + "(" + GROW + "|" + NUM + "))?";
-	private static final String  BLOCK   = "\\[\\s*(" + CONTENT + ")\\s*\\]";
-	private static final Pattern P_BLOCK = Pattern.compile(BLOCK, Pattern.CASE_INSENSITIVE);
-	
-	private static final String  FULL   = "(" + BLOCK + "\\s*)*";                         // wow only 727 chars
-	private static final Pattern P_FULL = Pattern.compile(FULL, Pattern.CASE_INSENSITIVE);
+	private static final String GROW = "grow";
 	
 	/**
 	 * parses the given string to an array of {@link BlockInfo} instances
@@ -64,19 +57,40 @@ public class BlockInfo {
 	 * @return the result of the parsing operation
 	 */
 	public static BlockInfo[] parseArr(String str) {
-		str = str.trim();
-		if ( !P_FULL.matcher(str).matches() ) {
-			throw new IllegalArgumentException("invalid input: '" + str + "' (regex: '" + FULL + "')");
-		}
-		Matcher matcher = P_BLOCK.matcher(str);
-		if ( !matcher.find() ) {
+		return parseArr(str, 0, str.length());
+	}
+	
+	/**
+	 * parses the given range of the text to an array of {@link BlockInfo} instances
+	 * <p>
+	 * the range is scanned once, the blocks are created directly from the text
+	 * 
+	 * @param str   the text
+	 * @param start the start of the range (inclusive)
+	 * @param end   the end of the range (exclusive)
+	 * 
+	 * @return the result of the parsing operation
+	 * 
+	 * @see #parseArr(String)
+	 */
+	static BlockInfo[] parseArr(CharSequence str, int start, int end) {
+		TextScanner sc = new TextScanner(str, start, end);
+		sc.trim();
+		if ( sc.atEnd() ) {
 			return PatGridLayout.EMPTY_BLOCK_INFOS;
 		}
-		List<BlockInfo> result = new ArrayList<>();
-		do { // first find already invoked
-			result.add(parse(matcher.group(1)));
-		} while ( matcher.find() );
-		return result.toArray(new BlockInfo[result.size()]);
+		BlockInfo[] result = new BlockInfo[4];
+		int count = 0;
+		do {
+			sc.expect('[');
+			if ( count == result.length ) {
+				result = Arrays.copyOf(result, count << 1);
+			}
+			result[count++] = parse(sc);
+			sc.expect(']');
+			sc.skipWhitespace();
+		} while ( !sc.atEnd() );
+		return count == result.length ? result : Arrays.copyOf(result, count);
 	}
 	
 	/**
@@ -115,50 +129,60 @@ public class BlockInfo {
 	 * @return the result of the operation
 	 */
 	public static BlockInfo parse(String str) {
-		str = str.strip();
+		TextScanner sc = new TextScanner(str, 0, str.length());
+		sc.strip();
+		BlockInfo inf = parse(sc);
+		sc.expectEnd();
+		return inf;
+	}
+	
+	private static BlockInfo parse(TextScanner sc) {
+		sc.skipWhitespace();
 		BlockInfo inf = new BlockInfo();
-		if ( str.equalsIgnoreCase("grow") ) {
-			inf.max = inf.min = DYNAMIC;
+		if ( sc.isLetter() ) {
+			expectGrow(sc);
+			sc.skipWhitespace();
+			inf.set(DYNAMIC, DYNAMIC);
 			return inf;
 		}
-		Matcher sepMat = P_OPT_COMMA_SEP.matcher(str);
-		boolean sep = sepMat.find();
-		switch ( str.charAt(firstEnd(str, sepMat, sep) - 1) ) {
-		case 'x':
-			if ( str.charAt(firstEnd(str, sepMat, sep) - 2) != 'p' ) {
-				CompInfo.parseError(str, firstEnd(str, sepMat, sep) - 2, "px");
-			}
-			inf.min = CompInfo.parseNum(str.substring(0, firstEnd(str, sepMat, sep) - 2));
-			break;
-		default:
-			inf.min = CompInfo.parseNum(str.substring(0, firstEnd(str, sepMat, sep)));
-			break;
+		int min = num(sc);
+		int max = min;
+		boolean whitespace = sc.isWhitespace();
+		sc.skipWhitespace();
+		boolean comma = sc.at(',');
+		if ( comma ) {
+			sc.pos++;
+			sc.skipWhitespace();
 		}
-		if ( sep ) {
-			if ( CompInfo.startsWith(str, "grow", str.length() - 4) ) {
-				inf.max = DYNAMIC;
+		if ( comma || ( whitespace && !sc.atEnd() && !sc.at(']') ) ) {
+			if ( sc.isLetter() ) {
+				expectGrow(sc);
+				max = DYNAMIC;
 			} else {
-				switch ( str.charAt(str.length() - 1) ) {
-				case 'x':
-					if ( str.charAt(str.length() - 2) != 'p' ) {
-						CompInfo.parseError(str, str.length() - 2, "px");
-					}
-					inf.max = CompInfo.parseNum(str.substring(sepMat.end(), str.length() - 2));
-					break;
-				default:
-					inf.max = CompInfo.parseNum(str.substring(sepMat.end()));
-					break;
-				}
+				max = num(sc);
 			}
-		} else {
-			inf.max = inf.min;
+			sc.skipWhitespace();
 		}
-		inf.set(inf.min, inf.max);
+		inf.set(min, max);
 		return inf;
 	}
 	
-	private static int firstEnd(String text, Matcher m, boolean sep) {
-		return sep ? m.start() : text.length();
+	private static void expectGrow(TextScanner sc) {
+		int start = sc.pos;
+		if ( !sc.is(start, sc.word(), GROW) ) {
+			throw sc.error(start, GROW);
+		}
+	}
+	
+	private static int num(TextScanner sc) {
+		int val = sc.number();
+		if ( sc.isLetter() ) {
+			int start = sc.pos;
+			if ( !sc.is(start, sc.word(), "px") ) {
+				throw sc.error(start, "px");
+			}
+		}
+		return val;
 	}
 	
 	/**
@@ -183,7 +207,10 @@ public class BlockInfo {
 	 * @param max the maximum
 	 */
 	public BlockInfo(int min, int max) {
-		set(min, max);
+		// set may be overridden, so only its checks are used before the instance is initialized
+		checkMinMax(min, max);
+		this.min = check(min, 0);
+		this.max = check(max, MAX_SIZE);
 	}
 	
 	/**
@@ -217,14 +244,18 @@ public class BlockInfo {
 	 * @param max the maximum size
 	 */
 	public void set(int min, int max) {
+		checkMinMax(min, max);
+		this.min = check(min, 0);
+		this.max = check(max, MAX_SIZE);
+	}
+	
+	private static void checkMinMax(int min, int max) {
 		if ( min < -1 ) {
 			throw new IllegalArgumentException("min < -1: " + min);
 		}
 		if ( max < min && max != -1 ) {
 			throw new IllegalArgumentException("max < min: " + min + " < " + max);
 		}
-		this.min = check(min, 0);
-		this.max = check(max, MAX_SIZE);
 	}
 	
 	private static int check(int val, int def) {
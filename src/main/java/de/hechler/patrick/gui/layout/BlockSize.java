@@ -16,294 +16,550 @@
 // along with this program. If not, see <https://www.gnu.org/licenses/>.
 package de.hechler.patrick.gui.layout;
 
-import java.awt.Dimension;
+import java.awt.Component;
 import java.util.Arrays;
 
-interface BlockSize {
+/**
+ * stores the sizes of the blocks of one axis
+ * <p>
+ * the blocks are grouped into segments. a segment starts at each block where a {@link Component} starts or ends, so
+ * all blocks of a segment are covered by the same {@link Component Components}.<br>
+ * the blocks of a segment are again grouped into entries, all blocks of an entry use the same {@link BlockInfo}, so
+ * they always have the same size. the {@link #weights weight} of an entry is the number of blocks it contains.
+ * <p>
+ * when the axis is dense (the number of blocks is not much larger than the number of {@link Component Components})
+ * each block is its own segment and entry. otherwise the axis is sparse: only the blocks used by the
+ * {@link Component Components} are stored separately and a range of unused blocks is stored as one segment, with
+ * one entry for each {@link BlockInfo} used in that range.
+ * <p>
+ * for each size kind (for example the minimum and the preferred size) there is one array with the sizes of the
+ * entries ({@link #sizes}). the sizes include the empty space of the axis and are always between the minimum
+ * ({@link #mins}) and maximum ({@link #maxs}) of the entry.
+ */
+final class BlockSize {
 	
-	static BlockSize create(int size) {
-		switch ( size ) {
-		case 1:
-			return new BlockSize1();
-		case 2:
-			return new BlockSize2();
-		default:
-			return new BlockSizeGeneric(size);
-		}
-	}
-	
-	void max(int i, Dimension dim);
-	
-	void min(int i, Dimension dim);
-	
-	void w(int i, int val);
-	
-	void h(int i, int val);
+	private static final int DENSE_FACTOR = 4;
+	private static final int DENSE_MIN    = 64;
 	
-	int w(int i);
+	final Table               table;
+	final int                 empty;
+	final int                 blockCount;
+	private final boolean     dense;
+	final int                 segmentCount;
+	final int[]               segments;
+	final int[]               entries;
+	int                       entryCount;
+	int[]                     weights;
+	int[]                     mins;
+	int[]                     maxs;
+	final int[][]             sizes;
+	private long[]            pots;
+	private int[]             adjusted;
+	private int[]             positions;
+	private int               positionsTotal;
 	
-	int h(int i);
-	
-	public static class BlockSize1 implements BlockSize {
-		
-		private int w0;
-		private int h0;
-		
-		@Override
-		public void max(@SuppressWarnings("unused") int i, Dimension dim) {
-			int v = this.w0;
-			if ( v < dim.width ) {
-				this.w0 = dim.width;
-			}
-			v = this.h0;
-			if ( v < dim.height ) {
-				this.h0 = dim.height;
+	/**
+	 * creates the blocks of one axis
+	 * 
+	 * @param table     the minimum and maximum sizes of the blocks of the axis
+	 * @param kinds     the number of size kinds
+	 * @param starts    the first block of each component
+	 * @param lengths   the number of blocks used by each component
+	 * @param compCount the number of components
+	 */
+	BlockSize(Table table, int kinds, int[] starts, int[] lengths, int compCount) {
+		this.table = table;
+		this.empty = table.empty;
+		int blockCount = 0;
+		for (int i = compCount; --i >= 0;) {
+			int end = starts[i] + lengths[i];
+			if ( end > blockCount ) {
+				blockCount = end;
 			}
 		}
-		
-		@Override
-		public void min(@SuppressWarnings("unused") int i, Dimension dim) {
-			int v = this.w0;
-			if ( v > dim.width ) {
-				this.w0 = dim.width;
+		this.blockCount = blockCount;
+		int[] segs;
+		int segCnt;
+		if ( blockCount <= (long) compCount * DENSE_FACTOR + DENSE_MIN ) {
+			this.dense = true;
+			segCnt = blockCount;
+			segs = new int[blockCount + 1];
+			for (int i = 1; i <= blockCount; i++) {
+				segs[i] = i;
 			}
-			v = this.h0;
-			if ( v > dim.height ) {
-				this.h0 = dim.height;
+		} else {
+			this.dense = false;
+			segs = new int[compCount * 2 + 1];
+			for (int i = compCount; --i >= 0;) {
+				segs[i << 1] = starts[i];
+				segs[( i << 1 ) + 1] = starts[i] + lengths[i];
+			}
+			// the last value is already zero
+			Arrays.sort(segs);
+			segCnt = 0;
+			for (int i = 1; i < segs.length; i++) {
+				if ( segs[i] != segs[segCnt] ) {
+					segs[++segCnt] = segs[i];
+				}
 			}
 		}
-		
-		@Override
-		public void w(@SuppressWarnings("unused") int i, int val) {
-			this.w0 = val;
+		this.segmentCount = segCnt;
+		this.segments = segs;
+		this.entries = new int[segCnt + 1];
+		int cap = this.dense ? blockCount : segCnt + table.afterMins.length + 1;
+		this.weights = new int[cap];
+		this.mins = new int[cap];
+		this.maxs = new int[cap];
+		if ( this.dense ) {
+			addBlocks(blockCount);
+			// each block is its own entry
+			System.arraycopy(segs, 0, this.entries, 0, segCnt + 1);
+		} else {
+			for (int i = 0; i < segCnt; i++) {
+				this.entries[i] = this.entryCount;
+				addEntries(segs[i], segs[i + 1]);
+			}
+			this.entries[segCnt] = this.entryCount;
 		}
-		
-		@Override
-		public void h(@SuppressWarnings("unused") int i, int val) {
-			this.h0 = val;
+		this.sizes = new int[kinds][];
+		for (int i = 0; i < kinds; i++) {
+			this.sizes[i] = Arrays.copyOf(this.mins, this.entryCount);
 		}
-		
-		@Override
-		public int w(@SuppressWarnings("unused") int i) {
-			return this.w0;
+	}
+	
+	private BlockSize(BlockSize solved) {
+		this.table = solved.table;
+		this.empty = solved.empty;
+		this.blockCount = solved.blockCount;
+		this.dense = solved.dense;
+		this.segmentCount = solved.segmentCount;
+		this.segments = solved.segments;
+		this.entries = solved.entries;
+		this.entryCount = solved.entryCount;
+		this.weights = solved.weights;
+		this.mins = solved.mins;
+		this.maxs = solved.maxs;
+		this.sizes = solved.sizes;
+	}
+	
+	/**
+	 * returns a {@link BlockSize} with the same solved sizes for another {@link java.awt.Container}
+	 * <p>
+	 * the solved arrays are not modified after the axis was solved, so they are shared. only the buffers of
+	 * {@link #positions(int)} are not shared
+	 * 
+	 * @return a {@link BlockSize} with the same solved sizes
+	 */
+	BlockSize share() {
+		return new BlockSize(this);
+	}
+	
+	private void addBlocks(int end) {
+		final Table t = this.table;
+		int end0 = Math.min(end, t.mins.length);
+		for (int block = 0; block < end0; block++) {
+			addEntry(t.mins[block], t.maxs[block], 1);
 		}
-		
-		@Override
-		public int h(@SuppressWarnings("unused") int i) {
-			return this.h0;
+		if ( end <= t.mins.length ) {
+			return;
 		}
-		
-		@Override
-		public int hashCode() {
-			final int prime  = 31;
-			int       result = 1;
-			result = prime * result + this.h0;
-			result = prime * result + this.w0;
-			return result;
+		int period = t.afterMins.length;
+		for (int block = t.mins.length, a = t.afterIndex(block); block < end; block++) {
+			addEntry(t.afterMins[a], t.afterMaxs[a], 1);
+			if ( ++a == period ) a = 0;
 		}
-		
-		@Override
-		public boolean equals(Object obj) {
-			if ( this == obj ) { return true; }
-			if ( !( obj instanceof BlockSize1 ) ) { return false; }
-			BlockSize1 other = (BlockSize1) obj;
-			if ( this.h0 != other.h0 ) { return false; }
-			return this.w0 == other.w0;
+	}
+	
+	private void addEntries(int start, int end) {
+		final Table t = this.table;
+		int end0 = Math.min(end, t.mins.length);
+		for (int block = start; block < end0; block++) {
+			addEntry(t.mins[block], t.maxs[block], 1);
 		}
-		
-		@Override
-		public String toString() {
-			return "{(" + this.w0 + "|" + this.h0 + ")}";
+		if ( end <= t.mins.length ) {
+			return;
+		}
+		int start1 = Math.max(start, t.mins.length);
+		int a = t.afterIndex(start1);
+		int period = t.afterMins.length;
+		int len = end - start1;
+		int full = len / period;
+		int rem = len - full * period;
+		// when the range covers at least one period each repeat block becomes one entry
+		for (int i = 0, cnt = full == 0 ? len : period; i < cnt; i++) {
+			addEntry(t.afterMins[a], t.afterMaxs[a], i < rem ? full + 1 : full);
+			if ( ++a == period ) a = 0;
 		}
-		
 	}
 	
-	public static class BlockSize2 implements BlockSize {
-		
-		private int w0;
-		private int h0;
-		private int w1;
-		private int h1;
-		
-		@Override
-		public void max(int i, Dimension dim) {
-			int v = i == 0 ? this.w0 : this.w1;
-			if ( v < dim.width ) {
-				if ( i == 0 ) {
-					this.w0 = dim.width;
-				} else {
-					this.w1 = dim.width;
-				}
-			}
-			v = i == 0 ? this.h0 : this.h1;
-			if ( v < dim.height ) {
-				if ( i == 0 ) {
-					this.h0 = dim.height;
-				} else {
-					this.h1 = dim.height;
-				}
+	private void addEntry(int min, int max, int weight) {
+		int e = this.entryCount++;
+		if ( e == this.weights.length ) {
+			int cap = e + ( e >>> 1 ) + 4;
+			this.weights = Arrays.copyOf(this.weights, cap);
+			this.mins = Arrays.copyOf(this.mins, cap);
+			this.maxs = Arrays.copyOf(this.maxs, cap);
+		}
+		this.weights[e] = weight;
+		this.mins[e] = min;
+		this.maxs[e] = max;
+	}
+	
+	/**
+	 * returns the segment which starts with the given block
+	 * 
+	 * @param block the first block of the segment (or {@link #blockCount})
+	 * 
+	 * @return the index of the segment
+	 */
+	int segment(int block) {
+		if ( this.dense ) {
+			return block;
+		}
+		return Arrays.binarySearch(this.segments, 0, this.segmentCount + 1, block);
+	}
+	
+	/**
+	 * ensures that the given block has at least the given size (or its maximum size)
+	 * <p>
+	 * the block has to be the only block of its segment, which is always the case for a block used by a component
+	 * with a size of one
+	 * 
+	 * @param bsi   the size kind
+	 * @param block the block
+	 * @param size  the needed size
+	 */
+	void max(int bsi, int block, int size) {
+		int e = this.entries[segment(block)];
+		int val = Math.min(size, this.maxs[e]);
+		int[] s = this.sizes[bsi];
+		if ( val > s[e] ) {
+			s[e] = val;
+		}
+	}
+	
+	/**
+	 * ensures that the sum of the given blocks has at least the given size (as long as the blocks can grow)
+	 * <p>
+	 * the missing size is distributed evenly (rounded up) between all blocks, which can still grow. if a block can not
+	 * grow that much it is filled and the rest is distributed again between the remaining blocks.<br>
+	 * instead of distributing round by round, the blocks are sorted by their remaining growth potential and the
+	 * rounds are simulated on a common fill level, so each block is only written once
+	 * 
+	 * @param bsi   the size kind
+	 * @param block the first block
+	 * @param count the number of blocks
+	 * @param size  the needed size
+	 */
+	void grow(int bsi, int block, int count, int size) {
+		final int from = this.entries[segment(block)];
+		final int to = this.entries[segment(block + count)];
+		final int[] s = this.sizes[bsi];
+		final int[] w = this.weights;
+		final int[] max = this.maxs;
+		long missing = size;
+		for (int i = from; i < to; i++) {
+			missing -= (long) w[i] * s[i];
+		}
+		if ( missing <= 0L ) {
+			return;
+		}
+		// high 32 bits: the growth potential, low 32 bits: the entry
+		long[] pots = pots(to - from);
+		int potCnt = 0;
+		long growPotCnt = 0L;
+		for (int i = from; i < to; i++) {
+			int growPot = max[i] - s[i];
+			if ( growPot > 0 ) {
+				pots[potCnt++] = ( (long) growPot << 32 ) | i;
+				growPotCnt += w[i];
 			}
 		}
-		
-		@Override
-		public void min(int i, Dimension dim) {
-			int v = i == 0 ? this.w0 : this.w1;
-			if ( v > dim.width ) {
-				if ( i == 0 ) {
-					this.w0 = dim.width;
-				} else {
-					this.w1 = dim.width;
-				}
+		if ( potCnt == 0 ) {
+			return;
+		}
+		Arrays.sort(pots, 0, potCnt);
+		long level = 0L;
+		int filled = 0;
+		while ( true ) {
+			// round up, a block which can not grow that much is filled and the rest is distributed in the next round
+			long div = ( missing + growPotCnt - 1 ) / growPotCnt;
+			long nextLevel = level + div;
+			int newFilled = filled;
+			for (; newFilled < potCnt && ( pots[newFilled] >>> 32 ) <= nextLevel; newFilled++) {
+				int i = (int) pots[newFilled];
+				missing -= w[i] * ( ( pots[newFilled] >>> 32 ) - level );
+				growPotCnt -= w[i];
 			}
-			v = i == 0 ? this.h0 : this.h1;
-			if ( v > dim.height ) {
-				if ( i == 0 ) {
-					this.h0 = dim.height;
-				} else {
-					this.h1 = dim.height;
-				}
+			missing -= growPotCnt * div;
+			level = nextLevel;
+			if ( newFilled == filled ) {
+				break;
 			}
-		}
-		
-		@Override
-		public void w(int i, int val) {
-			if ( i == 0 ) {
-				this.w0 = val;
-			} else {
-				this.w1 = val;
+			filled = newFilled;
+			if ( missing <= 0L || growPotCnt == 0L ) {
+				break;
 			}
 		}
-		
-		@Override
-		public void h(int i, int val) {
-			if ( i == 0 ) {
-				this.h0 = val;
-			} else {
-				this.h1 = val;
-			}
+		for (int p = 0; p < filled; p++) {
+			int i = (int) pots[p];
+			s[i] = max[i];
 		}
-		
-		@Override
-		public int w(int i) {
-			return i == 0 ? this.w0 : this.w1;
+		for (int p = filled; p < potCnt; p++) {
+			s[(int) pots[p]] += (int) level;
 		}
-		
-		@Override
-		public int h(int i) {
-			return i == 0 ? this.h0 : this.h1;
+	}
+	
+	private long[] pots(int len) {
+		long[] pots = this.pots;
+		if ( pots == null || pots.length < len ) {
+			pots = new long[len];
+			this.pots = pots;
 		}
-		
-		@Override
-		public int hashCode() {
-			final int prime  = 31;
-			int       result = 1;
-			result = prime * result + this.h0;
-			result = prime * result + this.h1;
-			result = prime * result + this.w0;
-			result = prime * result + this.w1;
-			return result;
+		return pots;
+	}
+	
+	/**
+	 * returns the size of the complete axis (including the leading empty space)
+	 * 
+	 * @param bsi the size kind
+	 * 
+	 * @return the size of the complete axis
+	 */
+	int size(int bsi) {
+		final int[] s = this.sizes[bsi];
+		final int[] w = this.weights;
+		long size = this.empty;
+		for (int i = this.entryCount; --i >= 0;) {
+			size += (long) w[i] * s[i];
 		}
-		
-		@Override
-		public boolean equals(Object obj) {
-			if ( this == obj ) { return true; }
-			if ( !( obj instanceof BlockSize2 ) ) { return false; }
-			BlockSize2 other = (BlockSize2) obj;
-			if ( this.h0 != other.h0 ) { return false; }
-			if ( this.h1 != other.h1 ) { return false; }
-			if ( this.w0 != other.w0 ) { return false; }
-			return this.w1 == other.w1;
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * calculates the start position of each segment, when the axis has the given total size
+	 * <p>
+	 * the minimum sizes (size kind {@code 0}) are used and if there is free space it is distributed with
+	 * {@link #adjust(int[], int)}
+	 * <p>
+	 * the returned array is reused by the next invocation, when the total size did not change since the last
+	 * invocation the previous positions are returned without calculating them again
+	 * 
+	 * @param total the total size
+	 * 
+	 * @return the start positions of the segments (the last value is the end position of the last segment)
+	 */
+	int[] positions(int total) {
+		int[] pos = this.positions;
+		if ( pos == null ) {
+			pos = new int[this.segmentCount + 1];
+			this.positions = pos;
+			this.adjusted = new int[this.entryCount];
+		} else if ( this.positionsTotal == total ) {
+			return pos;
 		}
-		
-		@Override
-		public String toString() {
-			return "{(" + this.w0 + "|" + this.h0 + "),(" + this.w1 + "|" + this.h1 + ")}";
+		int[] s = this.adjusted;
+		System.arraycopy(this.sizes[0], 0, s, 0, this.entryCount);
+		adjust(s, total);
+		this.positionsTotal = total;
+		final int[] w = this.weights;
+		final int[] e = this.entries;
+		int p = this.empty;
+		pos[0] = p;
+		for (int seg = 0; seg < this.segmentCount; seg++) {
+			for (int i = e[seg], end = e[seg + 1]; i < end; i++) {
+				p += w[i] * s[i];
+			}
+			pos[seg + 1] = p;
 		}
-		
+		return pos;
 	}
 	
-	public static class BlockSizeGeneric implements BlockSize {
-		
-		private int[] w;
-		private int[] h;
-		
-		
-		public BlockSizeGeneric(int size) {
-			this.w = new int[size];
-			this.h = new int[size];
+	/**
+	 * distributes the free space of the total size to the blocks, which can still grow
+	 * <p>
+	 * each round all blocks, which can still grow, get the same amount of space (or less, if they can not grow that
+	 * much), if a block could not grow that much the rest is distributed in the next round.<br>
+	 * the blocks are sorted by their room, so the rounds can be simulated on a common level without touching the
+	 * blocks, which are not filled in that round
+	 * 
+	 * @param s     the sizes of the entries
+	 * @param total the total size
+	 */
+	private void adjust(int[] s, int total) {
+		final int[] w = this.weights;
+		final int[] max = this.maxs;
+		final int cnt = this.entryCount;
+		long free = (long) total - this.empty;
+		for (int i = cnt; --i >= 0;) {
+			free -= (long) w[i] * s[i];
 		}
-		
-		@Override
-		public void max(int i, Dimension dim) {
-			int v = this.w[i];
-			if ( v < dim.width ) {
-				this.w[i] = dim.width;
+		if ( free <= 0L ) {
+			return;
+		}
+		// high 32 bits: the room, low 32 bits: the entry
+		long[] rooms = pots(cnt);
+		int roomCnt = 0;
+		long diff = 0L;
+		long growCnt = 0L;
+		for (int i = 0; i < cnt; i++) {
+			int room = max[i] - s[i];
+			if ( room > 0 ) {
+				rooms[roomCnt++] = ( (long) room << 32 ) | i;
+				diff += (long) w[i] * room;
+				growCnt += w[i];
 			}
-			v = this.h[i];
-			if ( v < dim.height ) {
-				this.h[i] = dim.height;
+		}
+		if ( diff <= free ) {
+			for (int p = 0; p < roomCnt; p++) {
+				int i = (int) rooms[p];
+				s[i] = max[i];
 			}
+			return;
 		}
-		
-		@Override
-		public void min(int i, Dimension dim) {
-			int v = this.w[i];
-			if ( v > dim.width ) {
-				this.w[i] = dim.width;
+		Arrays.sort(rooms, 0, roomCnt);
+		long level = 0L;
+		int filled = 0;
+		while ( true ) {
+			long grow = Math.max(free / growCnt, 1L);
+			long minRoom = ( rooms[filled] >>> 32 ) - level;
+			long nextLevel = level + grow;
+			for (; filled < roomCnt && ( rooms[filled] >>> 32 ) <= nextLevel; filled++) {
+				int i = (int) rooms[filled];
+				long room = ( rooms[filled] >>> 32 ) - level;
+				free -= w[i] * room;
+				growCnt -= w[i];
+				diff -= w[i] * room;
 			}
-			v = this.h[i];
-			if ( v > dim.height ) {
-				this.h[i] = dim.height;
+			free -= growCnt * grow;
+			diff -= growCnt * grow;
+			level = nextLevel;
+			if ( grow <= minRoom || free <= 0L || growCnt == 0L ) {
+				break;
+			}
+			if ( diff <= free ) {
+				// fill everything
+				level = Long.MAX_VALUE;
+				break;
 			}
 		}
-		
-		@Override
-		public void h(int i, int val) {
-			this.h[i] = val;
+		for (int p = 0; p < roomCnt; p++) {
+			int i = (int) rooms[p];
+			if ( p < filled || ( rooms[p] >>> 32 ) <= level ) {
+				s[i] = max[i];
+			} else {
+				s[i] += (int) level;
+			}
 		}
-		
-		@Override
-		public void w(int i, int val) {
-			this.w[i] = val;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder b = new StringBuilder();
+		b.append("BlockSize [").append(this.table.axis).append(", blocks=").append(this.blockCount);
+		b.append(this.dense ? ", dense" : ", sparse");
+		b.append(", segments=").append(Arrays.toString(Arrays.copyOf(this.segments, this.segmentCount + 1)));
+		b.append(", weights=").append(Arrays.toString(Arrays.copyOf(this.weights, this.entryCount)));
+		for (int i = 0; i < this.sizes.length; i++) {
+			b.append(", sizes").append(i).append('=').append(Arrays.toString(this.sizes[i]));
 		}
-		
-		@Override
-		public int h(int i) {
-			return this.h[i];
+		return b.append(']').toString();
+	}
+	
+	/**
+	 * the minimum and maximum sizes of the blocks and repeat blocks of one axis
+	 * <p>
+	 * the values are read once from the {@link BlockInfo} instances and already include the empty space of the axis,
+	 * so the {@link BlockSize} can use plain array reads
+	 */
+	static final class Table {
+		
+		final char  axis;
+		final int   empty;
+		final int[] mins;
+		final int[] maxs;
+		final int[] afterMins;
+		final int[] afterMaxs;
+		
+		/**
+		 * creates the table of one axis
+		 * 
+		 * @param blocks      the blocks of the axis
+		 * @param afterBlocks the repeat blocks of the axis
+		 * @param empty       the empty space between the blocks
+		 * @param axis        the name of the axis (used for error messages)
+		 */
+		Table(BlockInfo[] blocks, BlockInfo[] afterBlocks, int empty, char axis) {
+			this.axis = axis;
+			this.empty = empty;
+			this.mins = new int[blocks.length];
+			this.maxs = new int[blocks.length];
+			for (int i = blocks.length; --i >= 0;) {
+				this.mins[i] = blocks[i].min + empty;
+				this.maxs[i] = blocks[i].max + empty;
+			}
+			this.afterMins = new int[afterBlocks.length];
+			this.afterMaxs = new int[afterBlocks.length];
+			for (int i = afterBlocks.length; --i >= 0;) {
+				this.afterMins[i] = afterBlocks[i].min + empty;
+				this.afterMaxs[i] = afterBlocks[i].max + empty;
+			}
 		}
 		
-		@Override
-		public int w(int i) {
-			return this.w[i];
+		/**
+		 * returns the index of the repeat block used for the given block
+		 * 
+		 * @param block the block (not less than the number of blocks)
+		 * 
+		 * @return the index of the repeat block
+		 * 
+		 * @throws IndexOutOfBoundsException if there are no repeat blocks
+		 */
+		int afterIndex(int block) throws IndexOutOfBoundsException {
+			if ( this.afterMins.length == 0 ) {
+				throw new IndexOutOfBoundsException("there is no " + this.axis + " block with the number " + block);
+			}
+			return ( block - this.mins.length ) % this.afterMins.length;
 		}
 		
-		@Override
-		public int hashCode() {
-			final int prime  = 31;
-			int       result = 1;
-			result = prime * result + Arrays.hashCode(this.h);
-			result = prime * result + Arrays.hashCode(this.w);
-			return result;
+		/**
+		 * returns {@code true} if the given table has the same sizes as this table
+		 * 
+		 * @param other the other table
+		 * 
+		 * @return {@code true} if the given table has the same sizes as this table
+		 */
+		boolean same(Table other) {
+			if ( this == other ) { return true; }
+			if ( this.empty != other.empty ) { return false; }
+			if ( !Arrays.equals(this.mins, other.mins) ) { return false; }
+			if ( !Arrays.equals(this.maxs, other.maxs) ) { return false; }
+			if ( !Arrays.equals(this.afterMins, other.afterMins) ) { return false; }
+			return Arrays.equals(this.afterMaxs, other.afterMaxs);
 		}
 		
-		@Override
-		public boolean equals(Object obj) {
-			if ( this == obj ) { return true; }
-			if ( !( obj instanceof BlockSizeGeneric ) ) { return false; }
-			BlockSizeGeneric other = (BlockSizeGeneric) obj;
-			if ( !Arrays.equals(this.h, other.h) ) { return false; }
-			return Arrays.equals(this.w, other.w);
+		/**
+		 * returns {@code true} if this table was created from blocks with the current values of the given blocks
+		 * <p>
+		 * the {@link BlockInfo} instances are modifiable, so they are compared by their values
+		 * 
+		 * @param blocks      the blocks of the axis
+		 * @param afterBlocks the repeat blocks of the axis
+		 * @param empty       the empty space between the blocks
+		 * 
+		 * @return {@code true} if this table is still valid for the given blocks
+		 */
+		boolean matches(BlockInfo[] blocks, BlockInfo[] afterBlocks, int empty) {
+			if ( this.empty != empty ) { return false; }
+			return matches(this.mins, this.maxs, blocks, empty) && matches(this.afterMins, this.afterMaxs, afterBlocks, empty);
 		}
 		
-		@Override
-		public String toString() {
-			StringBuilder b = new StringBuilder().append('{');
-			for (int i = 0, l = this.w.length; i < l; i++) {
-				if ( i == 0 ) b.append('(');
-				else b.append(",(");
-				b.append(this.w[i]).append('|').append(this.h[i]).append(')');
+		private static boolean matches(int[] mins, int[] maxs, BlockInfo[] blocks, int empty) {
+			if ( mins.length != blocks.length ) { return false; }
+			for (int i = blocks.length; --i >= 0;) {
+				if ( mins[i] != blocks[i].min + empty || maxs[i] != blocks[i].max + empty ) { return false; }
 			}
-			return b.append('}').toString();
+			return true;
 		}
 		
 	}
@@ -18,9 +18,9 @@ package de.hechler.patrick.gui.layout;
 
 import java.awt.Component;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
+import de.hechler.patrick.gui.layout.FillMode.MulFillMode;
 import de.hechler.patrick.gui.layout.FillMode.SimpleFillMode;
 
 /**
@@ -49,19 +49,25 @@ import de.hechler.patrick.gui.layout.FillMode.SimpleFillMode;
  * <li>the alignment can be set with {@link #xAlign(float)}/{@link #yAlign(float)}</li>
  * <li>the fill modes can be set with {@link #wideMode(FillMode)}/{@link #heightMode(FillMode)}</li>
  * </ul>
+ * unless they are {@link #isImmutable() immutable} (see {@link #of(int, int, int, int, float, float, FillMode, FillMode)}
+ * and {@link #immutable()})
  * 
  * @author Patrick Hechler
  */
 public class CompInfo {
 	
-	int      x;
-	int      y;
-	int      w;
-	int      h;
-	FillMode widthMode;
-	FillMode heightMode;
-	float    alignx;
-	float    aligny;
+	private static final int                    MAX_INTERNED = 4096;
+	private static final Map<CompInfo,CompInfo> INTERNED     = new ConcurrentHashMap<>();
+	
+	int             x;
+	int             y;
+	int             w;
+	int             h;
+	FillMode        widthMode;
+	FillMode        heightMode;
+	float           alignx;
+	float           aligny;
+	private boolean immutable;
 	
 	private CompInfo() {
 	}
@@ -155,15 +161,190 @@ public class CompInfo {
 	 */
 	public CompInfo(int x, int y, int w, int h, float xAlign, float yAlign, FillMode wideMode, FillMode heightMode)
 		throws IllegalArgumentException, NullPointerException {
-		if ( this.getClass() != CompInfo.class ) {
-			this.w = 1;// if sub class: make valid before calling the setters
-			this.h = 1;
-		} // use the setters, so the checks are only needed there
-		bounds(x, y, w, h);
-		yAlign(xAlign);
-		yAlign(yAlign);
-		wideMode(wideMode);
-		heightMode(heightMode);
+		// the setters may be overridden, so only their checks are used before the instance is initialized
+		checkBounds(x, y, w, h);
+		this.x = x;
+		this.y = y;
+		this.w = w;
+		this.h = h;
+		this.alignx = checkAlign(xAlign, 'x');
+		this.aligny = checkAlign(yAlign, 'y');
+		this.widthMode = checkMode(wideMode, "widthMode");
+		this.heightMode = checkMode(heightMode, "heightMode");
+	}
+	
+	/**
+	 * creates a copy of this {@link CompInfo}
+	 * <p>
+	 * a {@link FillMode.MulFillMode} is also copied, because it is modifiable
+	 * 
+	 * @return a copy of this {@link CompInfo}
+	 */
+	public CompInfo copy() {
+		return copy(copy(this.widthMode), copy(this.heightMode));
+	}
+	
+	private CompInfo copy(FillMode widthMode, FillMode heightMode) {
+		CompInfo c = new CompInfo();
+		c.x = this.x;
+		c.y = this.y;
+		c.w = this.w;
+		c.h = this.h;
+		c.alignx = this.alignx;
+		c.aligny = this.aligny;
+		c.widthMode = widthMode;
+		c.heightMode = heightMode;
+		return c;
+	}
+	
+	private static FillMode copy(FillMode mode) {
+		if ( mode instanceof FillMode.MulFillMode mfm && !mfm.isImmutable() ) {
+			if ( mfm instanceof FillMode.MulFillMode.AdvancedMulFillMode ) {
+				return new FillMode.MulFillMode.AdvancedMulFillMode(mfm.type, mfm.mul);
+			}
+			return new FillMode.MulFillMode(mfm.type, mfm.mul);
+		}
+		return mode;
+	}
+	
+	/**
+	 * returns an immutable {@link CompInfo} with the given values
+	 * <p>
+	 * all setters of the returned instance throw an {@link UnsupportedOperationException}.<br>
+	 * when both fill modes are {@link SimpleFillMode SimpleFillModes} or
+	 * {@link FillMode#immutableFillMode(float, FillMode) immutable fill modes} of them, the instances are interned:
+	 * equal values return the same instance, so they can be shared and compared by identity.<br>
+	 * at most 4096 instances are interned, after that new values are returned as immutable instances which are not
+	 * interned, so only equal instances which are already interned are identical.<br>
+	 * an interned instance may be used by any other caller, this is why it can not be modified, use {@link #copy()} to
+	 * get a modifiable instance with the same values
+	 * 
+	 * @param x          the value for {@link #xPos()}
+	 * @param y          the value for {@link #xPos()}
+	 * @param w          the value for {@link #width()}
+	 * @param h          the value for {@link #height()}
+	 * @param xAlign     the value for {@link #xAlign()}
+	 * @param yAlign     the value for {@link #yAlign()}
+	 * @param widthMode  the value for {@link #widthMode()}
+	 * @param heightMode the value for {@link #heightMode()}
+	 * 
+	 * @return an immutable {@link CompInfo} with the given values
+	 * 
+	 * @throws IllegalArgumentException if a argument is invalid
+	 * @throws NullPointerException     if a argument is <code>null</code>
+	 * 
+	 * @see #immutable()
+	 */
+	public static CompInfo of(int x, int y, int w, int h, float xAlign, float yAlign, FillMode widthMode,
+		FillMode heightMode) throws IllegalArgumentException, NullPointerException {
+		CompInfo inf = new CompInfo();
+		inf.bounds(x, y, w, h);
+		inf.xAlign(xAlign);
+		inf.yAlign(yAlign);
+		inf.wideMode(widthMode);
+		inf.heightMode(heightMode);
+		return inf.immutable();
+	}
+	
+	/**
+	 * creates an immutable {@link CompInfo} with the given values without checking them, the values have to be taken
+	 * from a valid {@link CompInfo}
+	 * <p>
+	 * the returned instance is not interned
+	 * 
+	 * @param x          the value for {@link #xPos()}
+	 * @param y          the value for {@link #xPos()}
+	 * @param w          the value for {@link #width()}
+	 * @param h          the value for {@link #height()}
+	 * @param xAlign     the value for {@link #xAlign()}
+	 * @param yAlign     the value for {@link #yAlign()}
+	 * @param widthMode  the value for {@link #widthMode()}
+	 * @param heightMode the value for {@link #heightMode()}
+	 * 
+	 * @return an immutable {@link CompInfo} with the given values
+	 */
+	static CompInfo unchecked(int x, int y, int w, int h, float xAlign, float yAlign, FillMode widthMode,
+		FillMode heightMode) {
+		CompInfo inf = new CompInfo();
+		inf.x = x;
+		inf.y = y;
+		inf.w = w;
+		inf.h = h;
+		inf.alignx = xAlign;
+		inf.aligny = yAlign;
+		inf.widthMode = widthMode;
+		inf.heightMode = heightMode;
+		inf.immutable = true;
+		return inf;
+	}
+	
+	/**
+	 * returns an immutable {@link CompInfo} with the values of this {@link CompInfo}
+	 * <p>
+	 * if this instance is already immutable it is returned, otherwise the returned instance is interned like the
+	 * instances of {@link #of(int, int, int, int, float, float, FillMode, FillMode)} (up to the same limit of 4096
+	 * interned instances).<br>
+	 * modifiable {@link MulFillMode} fill modes are replaced by {@link FillMode#immutableFillMode(float, FillMode)
+	 * immutable} fill modes, so later changes of this instance or of its fill modes are not visible in the returned
+	 * instance.<br>
+	 * all setters of the returned instance throw an {@link UnsupportedOperationException}, use {@link #copy()} to get a
+	 * modifiable instance
+	 * 
+	 * @return an immutable {@link CompInfo} with the values of this {@link CompInfo}
+	 */
+	public CompInfo immutable() {
+		if ( this.immutable ) {
+			return this;
+		}
+		CompInfo c = copy(MulFillMode.immutable(this.widthMode), MulFillMode.immutable(this.heightMode));
+		c.immutable = true;
+		if ( !MulFillMode.shareable(c.widthMode) || !MulFillMode.shareable(c.heightMode) ) {
+			return c;
+		}
+		CompInfo interned = INTERNED.get(c);
+		if ( interned != null ) {
+			return interned;
+		}
+		if ( INTERNED.size() >= MAX_INTERNED ) {
+			return c;
+		}
+		interned = INTERNED.putIfAbsent(c, c);
+		return interned != null ? interned : c;
+	}
+	
+	/**
+	 * returns {@code true} if this {@link CompInfo} can not be modified
+	 * 
+	 * @return {@code true} if this {@link CompInfo} can not be modified
+	 * 
+	 * @see #immutable()
+	 */
+	public boolean isImmutable() {
+		return this.immutable;
+	}
+	
+	private void checkMutable() {
+		if ( this.immutable ) {
+			throw new UnsupportedOperationException("this CompInfo is immutable: " + this);
+		}
+	}
+	
+	private static void checkBounds(int x, int y, int w, int h) {
+		if ( x < 0 || y < 0 || w <= 0 || h <= 0 ) {
+			throw new IllegalArgumentException("x/y < 0 | w/h <= 0: x=" + x + " y=" + y + " w=" + w + " h=" + h);
+		}
+	}
+	
+	private static float checkAlign(float align, char axis) {
+		if ( !( align >= 0f ) || align > 1f ) {// NOSONAR // `!(NaN >= 0)` is true
+			throw new IllegalArgumentException(axis + "-alignment out of bounds: " + align);
+		}
+		return align;
+	}
+	
+	private static FillMode checkMode(FillMode mode, String name) {
+		if ( mode == null ) throw new NullPointerException(name + " is null");
+		return mode;
 	}
 	
 	/**
@@ -230,15 +411,16 @@ public class CompInfo {
 	 * @param w the number of used x blocks
 	 * @param h the number of used y blocks
 	 * 
+	 * @throws UnsupportedOperationException if this {@link CompInfo} is {@link #isImmutable() immutable}
+	 * 
 	 * @see #xPos()
 	 * @see #yPos()
 	 * @see #width()
 	 * @see #height()
 	 */
 	public void bounds(int x, int y, int w, int h) {
-		if ( x < 0 || y < 0 || w <= 0 || h <= 0 ) {
-			throw new IllegalArgumentException("x/y < 0 | w/h <= 0: x=" + x + " y=" + y + " w=" + w + " h=" + h);
-		}
+		checkMutable();
+		checkBounds(x, y, w, h);
 		this.x = x;
 		this.y = y;
 		this.w = w;
@@ -258,12 +440,12 @@ public class CompInfo {
 	 * sets the x alignment (a value between <code>0</code> and <code>1</code> (both inclusive))
 	 * 
 	 * @param xAlign the x alignment (a value between <code>0</code> and <code>1</code> (both inclusive))
+	 * 
+	 * @throws UnsupportedOperationException if this {@link CompInfo} is {@link #isImmutable() immutable}
 	 */
 	public void xAlign(float xAlign) {
-		if ( !( xAlign >= 0f ) || xAlign > 1f ) {// NOSONAR // `!(NaN >= 0)` is true
-			throw new IllegalArgumentException("x-alignment out of bounds: " + xAlign);
-		}
-		this.alignx = xAlign;
+		checkMutable();
+		this.alignx = checkAlign(xAlign, 'x');
 	}
 	
 	/**
@@ -279,12 +461,12 @@ public class CompInfo {
 	 * sets the y alignment (a value between <code>0</code> and <code>1</code> (both inclusive))
 	 * 
 	 * @param yAlign the y alignment (a value between <code>0</code> and <code>1</code> (both inclusive))
+	 * 
+	 * @throws UnsupportedOperationException if this {@link CompInfo} is {@link #isImmutable() immutable}
 	 */
 	public void yAlign(float yAlign) {
-		if ( !( yAlign >= 0f ) || yAlign > 1f ) {// NOSONAR // `!(NaN >= 0)` is true
-			throw new IllegalArgumentException("y-alignment out of bounds: " + yAlign);
-		}
-		this.aligny = yAlign;
+		checkMutable();
+		this.aligny = checkAlign(yAlign, 'y');
 	}
 	
 	/**
@@ -303,11 +485,12 @@ public class CompInfo {
 	 * 
 	 * @param heightMode the height fill mode
 	 * 
-	 * @throws NullPointerException if <code>widthMode</code> is <code>null</code>
+	 * @throws NullPointerException          if <code>widthMode</code> is <code>null</code>
+	 * @throws UnsupportedOperationException if this {@link CompInfo} is {@link #isImmutable() immutable}
 	 */
 	public void heightMode(FillMode heightMode) throws NullPointerException {
-		if ( heightMode == null ) throw new NullPointerException("heightMode is null");
-		this.heightMode = heightMode;
+		checkMutable();
+		this.heightMode = checkMode(heightMode, "heightMode");
 	}
 	
 	/**
@@ -326,11 +509,12 @@ public class CompInfo {
 	 * 
 	 * @param widthMode the height fill mode
 	 * 
-	 * @throws NullPointerException if <code>widthMode</code> is <code>null</code>
+	 * @throws NullPointerException          if <code>widthMode</code> is <code>null</code>
+	 * @throws UnsupportedOperationException if this {@link CompInfo} is {@link #isImmutable() immutable}
 	 */
 	public void wideMode(FillMode widthMode) throws NullPointerException {
-		if ( widthMode == null ) throw new NullPointerException("widthMode is null");
-		this.widthMode = widthMode;
+		checkMutable();
+		this.widthMode = checkMode(widthMode, "widthMode");
 	}
 	
 	/** {@inheritDoc} */
@@ -388,73 +572,6 @@ public class CompInfo {
 		return builder.append(']').toString();
 	}
 	
-	private static final String COMMA = "\\s*,\\s*";
-	
-	private static final String NUMBER_HEC = "0x[0-9a-f]+";
-	private static final String NUMBER_BIN = "0b[01]+";
-	private static final String NUMBER_OCT = "0[0-7]*";
-	private static final String NUMBER_DEC = "[1-9][0-9]*";// NOSONAR
-	static final String         NUMBER     =
-		"(" + NUMBER_HEC + "|" + NUMBER_BIN + "|" + NUMBER_OCT + "|" + NUMBER_DEC + ")";
-	
-	private static final String FP_NUMBER_DEC1 = "[.][0-9]+";// NOSONAR
-	private static final String FP_NUMBER_DEC2 = "[0-9]+[.][0-9]*";// NOSONAR
-	private static final String FP_NUMBER      = "(" + NUMBER + "|" + FP_NUMBER_DEC1 + "|" + FP_NUMBER_DEC2 + ")";
-	
-	private static final String XY_NAME = "position";
-	private static final String XY      = "(?<" + XY_NAME + ">" + NUMBER + "\\s+" + NUMBER + ")";
-	private static final String WH_NAME = "sizes";
-	private static final String WH      = "(?<" + WH_NAME + ">\\s+" + NUMBER + "\\s+" + NUMBER + ")?";
-	
-	private static final String A_OPT_MID = "mid";
-	
-	private static final String XA_OPT_LEFT  = "left";
-	private static final String XA_OPT_MID   = A_OPT_MID;
-	private static final String XA_OPT_RIGHT = "right";
-	private static final String XA_OPTS      =
-		"(" + FP_NUMBER + "|" + XA_OPT_LEFT + "|" + XA_OPT_MID + "|" + XA_OPT_RIGHT + ")";
-	private static final String XA_PREFIX    = "(xalign\\s*=\\s*)?";
-	private static final String XA_NAME      = "xAlign";
-	private static final String XA           = "(?<" + XA_NAME + ">" + COMMA + XA_PREFIX + XA_OPTS + ")?";
-	
-	private static final String YA_OPT_TOP    = "top";
-	private static final String YA_OPT_MID    = A_OPT_MID;
-	private static final String YA_OPT_BOTTOM = "bottom";
-	private static final String YA_OPTS       =
-		"(" + FP_NUMBER + "|" + YA_OPT_TOP + "|" + YA_OPT_MID + "|" + YA_OPT_BOTTOM + ")";
-	private static final String YA_PREFIX     = "(yalign\\s*=\\s*)?";
-	private static final String YA_NAME       = "yAlign";
-	private static final String YA            = "(?<" + YA_NAME + ">" + COMMA + YA_PREFIX + YA_OPTS + ")?";
-	
-	private static final String FM_OPT_COMPLETE  = "complete|full";
-	private static final String FM_OPT_MAXIMUM   = "max(imum)?";
-	private static final String FM_OPT_PREFERRED = "pref(erred)?";
-	private static final String FM_OPT_MINIMUM   = "min(imum)?";
-	
-	private static final String FM_OPTS_BASE =
-		FM_OPT_COMPLETE + "|" + FM_OPT_MAXIMUM + "|" + FM_OPT_PREFERRED + "|" + FM_OPT_MINIMUM;
-	private static final String FW_OPTS_NAME = "fillWidthOpts";
-	private static final String FW_OPTS      = "(?<" + FW_OPTS_NAME + ">" + FM_OPTS_BASE + ")";
-	private static final String FH_OPTS_NAME = "fillHeightOpts";
-	private static final String FH_OPTS      = "(?<" + FH_OPTS_NAME + ">" + FM_OPTS_BASE + ")";
-	
-	private static final String FM_MUL_BASE = "\\s*[*]\\s*" + FP_NUMBER;
-	private static final String FW_MUL_NAME = "fillWidthMul";
-	private static final String FW_MUL      = "(?<" + FW_MUL_NAME + ">" + FM_MUL_BASE + ")?";
-	private static final String FH_MUL_NAME = "fillHeightMul";
-	private static final String FH_MUL      = "(?<" + FH_MUL_NAME + ">" + FM_MUL_BASE + ")?";
-	
-	private static final String FW_PREFIX = "(fill-width\\s*=\\s*)?";
-	private static final String FW_NAME   = "fillWidth";
-	private static final String FW        = "(?<" + FW_NAME + ">" + COMMA + FW_PREFIX + FW_OPTS + FW_MUL + ")?";
-	
-	private static final String FH_PREFIX = "(fill-height\\s*=\\s*)?";
-	private static final String FH_NAME   = "fillHeight";
-	private static final String FH        = "(?<" + FH_NAME + ">" + COMMA + FH_PREFIX + FH_OPTS + FH_MUL + ")?";
-	
-	private static final String  FULL   = XY + WH + XA + YA + FW + FH;
-	private static final Pattern P_FULL = Pattern.compile(FULL, Pattern.CASE_INSENSITIVE);
-	
 	/**
 	 * parses the given {@link String} to a {@link CompInfo} instance
 	 * <p>
@@ -541,109 +658,26 @@ public class CompInfo {
 	 * @return the result of the parsing operation
 	 */
 	public static CompInfo parse(String str) {
-		str = str.strip();
-		Matcher matcher = P_FULL.matcher(str);
-		if ( !matcher.matches() ) {
-			throw new IllegalArgumentException(
-				"invalid input: '" + str + "' (if it helps here is the regex: '" + FULL + "')");
-		}
-		CompInfo             inf    = new CompInfo();
-		String[]             arr    = matcher.group(XY_NAME).split("\\s+");
-		int                  x      = parseNum(arr[0]);
-		int                  y      = parseNum(arr[1]);
-		Map<String, Integer> groups = matcher.namedGroups();
-		Integer              gindex = groups.get(WH_NAME);
-		String               group;
-		if ( ( group = matcher.group(gindex.intValue()) ) != null && !( group = group.strip() ).isEmpty() ) {
-			arr = group.split("\\s+");
-			int w = parseNum(arr[0]);
-			int h = parseNum(arr[1]);
-			inf.bounds(x, y, w, h);
-		} else {
-			inf.bounds(x, y, 1, 1);
-		}
-		gindex = groups.get(XA_NAME);
-		if ( ( group = matcher.group(gindex.intValue()) ) != null && !( group = group.strip() ).isEmpty() ) {
-			inf.xAlign(parseAlign(group));
-		}
-		gindex = groups.get(YA_NAME);
-		if ( ( group = matcher.group(gindex.intValue()) ) != null && !( group = group.strip() ).isEmpty() ) {
-			inf.yAlign(parseAlign(group));
-		}
-		gindex = groups.get(FW_NAME);
-		if ( ( group = matcher.group(gindex.intValue()) ) != null && !( group = group.strip() ).isEmpty() ) {
-			SimpleFillMode sfm = parseSimpleFillMode(matcher.group(FW_OPTS_NAME));
-			gindex = groups.get(FW_MUL_NAME);
-			if ( ( group = matcher.group(gindex.intValue()) ) != null && !( group = group.strip() ).isEmpty() ) {
-				inf.widthMode = FillMode.fillMode(parseFpNumWithMul(group), sfm);
-			} else {
-				inf.widthMode = sfm;
-			}
-		} else {
-			inf.widthMode = FillMode.FILL_MAXIMUM;
-		}
-		gindex = groups.get(FH_NAME);
-		if ( ( group = matcher.group(gindex.intValue()) ) != null && !( group = group.strip() ).isEmpty() ) {
-			SimpleFillMode sfm = parseSimpleFillMode(matcher.group(FH_OPTS_NAME));
-			gindex = groups.get(FH_MUL_NAME);
-			if ( ( group = matcher.group(gindex.intValue()) ) != null && !( group = group.strip() ).isEmpty() ) {
-				inf.heightMode = FillMode.fillMode(parseFpNumWithMul(group), sfm);
-			} else {
-				inf.heightMode = sfm;
-			}
-		} else {
-			inf.heightMode = FillMode.FILL_MAXIMUM;
-		}
-		return inf;
-	}
-	
-	private static float parseFpNumWithMul(String group) {
-		return parseFpNum(group.substring(group.indexOf('*')).strip());
-	}
-	
-	private static SimpleFillMode parseSimpleFillMode(String group) {
-		switch ( group ) {
-		case "complete", "full":
-			return FillMode.FILL_COMPLETLY;
-		case "max", "maximum":
-			return FillMode.FILL_MAXIMUM;
-		case "pref", "preferred":
-			return FillMode.FILL_PREFERRED;
-		case "min", "minimum":
-			return FillMode.FILL_MINIMUM;
-		default:
-			throw parseError(group, 0, group);
-		}
+		return parse((CharSequence) str);
 	}
 	
-	private static float parseAlign(String str) {
-		int index = str.indexOf('=');
-		if ( index == -1 ) {
-			index = str.indexOf(',');
-		}
-		str = str.substring(index + 1).strip();
-		switch ( str ) {
-		case XA_OPT_LEFT, YA_OPT_TOP:
-			return 0f;
-		case A_OPT_MID:
-			return 0.5f;
-		case XA_OPT_RIGHT, YA_OPT_BOTTOM:
-			return 1f;
-		default:
-			return parseNum(str);
-		}
-	}
-	
-	static RuntimeException parseError(String text, int start, String expected) throws AssertionError {
-		// throw AssertionError, because the regex should catch all invalid inputs
-		throw new AssertionError("illegal char: " + text.charAt(start) + " index: " + start + " expected: " + expected
-			+ " text: unparsed: '" + text.substring(start) + "' parsed: '" + text.substring(0, start) + "'");
-	}
-	
-	static void expectStartsWith(String text, String prefix, int toffset) {
-		if ( !startsWith(text, prefix, toffset) ) {
-			parseError(text, toffset, prefix);
-		}
+	/**
+	 * parses the given {@link CharSequence} to a {@link CompInfo} instance
+	 * <p>
+	 * {@code str} has to be formatted according to the {@code COMP-INFO} specification (see {@link #parse(String)}).
+	 * <p>
+	 * the text is parsed in a single pass without creating intermediate {@link String strings} (except for floating
+	 * point numbers with a {@code '.'}). when the text is invalid the thrown {@link IllegalArgumentException} contains
+	 * the index of the first invalid character
+	 * 
+	 * @param str the text to be parsed
+	 * 
+	 * @return the result of the parsing operation
+	 * 
+	 * @throws IllegalArgumentException if {@code str} is not valid
+	 */
+	public static CompInfo parse(CharSequence str) throws IllegalArgumentException {
+		return new Parser(str).parse();
 	}
 	
 	/**
@@ -750,4 +784,170 @@ public class CompInfo {
 		return Float.parseFloat(str);
 	}
 	
+	/**
+	 * a single pass parser for the {@code COMP-INFO} specification (see {@link CompInfo#parse(String)})
+	 * <p>
+	 * the optional comma separated values are assigned in their order: each value is used for the first of the
+	 * remaining alignments/fill modes which accepts it
+	 */
+	private static final class Parser extends TextScanner {
+		
+		private static final int SLOT_X_ALIGN     = 0;
+		private static final int SLOT_Y_ALIGN     = 1;
+		private static final int SLOT_FILL_WIDTH  = 2;
+		private static final int SLOT_FILL_HEIGHT = 3;
+		private static final int SLOT_NONE        = 4;
+		
+		private Parser(CharSequence str) {
+			super(str, 0, str.length());
+			strip();
+		}
+		
+		private CompInfo parse() {
+			CompInfo inf = new CompInfo();
+			int x = number();
+			whitespace();
+			int y = number();
+			int w = 1;
+			int h = 1;
+			if ( isWhitespace() ) {
+				skipWhitespace();
+				if ( !atEnd() && !at(',') ) {
+					w = number();
+					whitespace();
+					h = number();
+				}
+			}
+			inf.bounds(x, y, w, h);
+			inf.widthMode = FillMode.FILL_MAXIMUM;
+			inf.heightMode = FillMode.FILL_MAXIMUM;
+			int slot = SLOT_X_ALIGN;
+			while ( true ) {
+				skipWhitespace();
+				if ( atEnd() ) {
+					return inf;
+				}
+				expect(',');
+				skipWhitespace();
+				slot = value(inf, slot);
+			}
+		}
+		
+		private int value(CompInfo inf, int slot) {
+			int start = this.pos;
+			if ( !isLetter() ) {
+				if ( slot > SLOT_Y_ALIGN ) {
+					throw error(start, slot == SLOT_NONE ? "end of input" : "fill mode");
+				}
+				float val = fpNumber();
+				if ( slot == SLOT_X_ALIGN ) {
+					inf.xAlign(val);
+					return SLOT_Y_ALIGN;
+				}
+				inf.yAlign(val);
+				return SLOT_FILL_WIDTH;
+			}
+			int wordEnd = word();
+			if ( slot <= SLOT_X_ALIGN && is(start, wordEnd, "xalign") ) {
+				assign();
+				inf.xAlign(align(true));
+				return SLOT_Y_ALIGN;
+			} else if ( slot <= SLOT_Y_ALIGN && is(start, wordEnd, "yalign") ) {
+				assign();
+				inf.yAlign(align(false));
+				return SLOT_FILL_WIDTH;
+			} else if ( slot <= SLOT_FILL_WIDTH && is(start, wordEnd, "fill-width") ) {
+				assign();
+				inf.widthMode = fillMode();
+				return SLOT_FILL_HEIGHT;
+			} else if ( slot <= SLOT_FILL_HEIGHT && is(start, wordEnd, "fill-height") ) {
+				assign();
+				inf.heightMode = fillMode();
+				return SLOT_NONE;
+			}
+			if ( slot <= SLOT_X_ALIGN ) {
+				float align = alignName(start, wordEnd, true, false);
+				if ( align >= 0f ) {
+					inf.xAlign(align);
+					return SLOT_Y_ALIGN;
+				}
+			}
+			if ( slot <= SLOT_Y_ALIGN ) {
+				float align = alignName(start, wordEnd, false, true);
+				if ( align >= 0f ) {
+					inf.yAlign(align);
+					return SLOT_FILL_WIDTH;
+				}
+			}
+			if ( slot <= SLOT_FILL_HEIGHT ) {
+				SimpleFillMode sfm = simpleFillMode(start, wordEnd);
+				if ( sfm != null ) {
+					FillMode mode = fillModeMul(sfm);
+					if ( slot <= SLOT_FILL_WIDTH ) {
+						inf.widthMode = mode;
+						return SLOT_FILL_HEIGHT;
+					}
+					inf.heightMode = mode;
+					return SLOT_NONE;
+				}
+			}
+			throw error(start, slot == SLOT_NONE ? "end of input" : "alignment or fill mode");
+		}
+		
+		private float align(boolean x) {
+			if ( !isLetter() ) {
+				return fpNumber();
+			}
+			int start = this.pos;
+			float val = alignName(start, word(), x, !x);
+			if ( val < 0f ) {
+				throw error(start, x ? "left, mid, right or a number" : "top, mid, bottom or a number");
+			}
+			return val;
+		}
+		
+		private float alignName(int start, int wordEnd, boolean x, boolean y) {
+			if ( is(start, wordEnd, "mid") ) return 0.5f;
+			if ( x && is(start, wordEnd, "left") ) return 0f;
+			if ( x && is(start, wordEnd, "right") ) return 1f;
+			if ( y && is(start, wordEnd, "top") ) return 0f;
+			if ( y && is(start, wordEnd, "bottom") ) return 1f;
+			return -1f;
+		}
+		
+		private FillMode fillMode() {
+			int start = this.pos;
+			SimpleFillMode sfm = simpleFillMode(start, word());
+			if ( sfm == null ) {
+				throw error(start, "complete, full, max, maximum, pref, preferred, min or minimum");
+			}
+			return fillModeMul(sfm);
+		}
+		
+		private FillMode fillModeMul(SimpleFillMode sfm) {
+			skipWhitespace();
+			if ( at('*') ) {
+				this.pos++;
+				skipWhitespace();
+				return FillMode.fillMode(fpNumber(), sfm);
+			}
+			return sfm;
+		}
+		
+		private SimpleFillMode simpleFillMode(int start, int wordEnd) {
+			if ( is(start, wordEnd, "complete") || is(start, wordEnd, "full") ) return FillMode.FILL_COMPLETLY;
+			if ( is(start, wordEnd, "max") || is(start, wordEnd, "maximum") ) return FillMode.FILL_MAXIMUM;
+			if ( is(start, wordEnd, "pref") || is(start, wordEnd, "preferred") ) return FillMode.FILL_PREFERRED;
+			if ( is(start, wordEnd, "min") || is(start, wordEnd, "minimum") ) return FillMode.FILL_MINIMUM;
+			return null;
+		}
+		
+		private void assign() {
+			skipWhitespace();
+			expect('=');
+			skipWhitespace();
+		}
+		
+	}
+	
 }
@@ -0,0 +1,561 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import java.awt.Component;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+
+/**
+ * a packed store for the {@link CompInfo} values of the {@link Component Components} of a {@link java.awt.Container}
+ * managed by a {@link PatGridLayout}
+ * <p>
+ * the values are stored in parallel arrays, one slot for each {@link Component}:
+ * <ul>
+ * <li>the blocks ({@link CompInfo#xPos() x}, {@link CompInfo#yPos() y}, {@link CompInfo#width() width} and
+ * {@link CompInfo#height() height}) and the index of the style are stored in an {@code int[]}</li>
+ * <li>the style (the alignments and the fill modes) is stored once in a table, since most {@link Component
+ * Components} use one of a few styles. the table stores the exact values, so using a style is the same as using the
+ * {@link CompInfo}</li>
+ * <li>the slot of a {@link Component} is found with an open addressing identity hash table, which only stores the
+ * slot indices</li>
+ * </ul>
+ * the {@link Component Components} are only weakly referenced: a {@link Component} which leaves its {@link
+ * java.awt.Container} without {@link PatGridLayout#removeLayoutComponent(Component)} being invoked (for example when
+ * the layout is replaced or shared) can still be garbage collected, its slot is removed when the store is modified
+ * the next time. the arrays are halved when at most a quarter of them is used, so the store does not keep the
+ * memory of many removed {@link Component Components}.<br>
+ * {@link CompInfo#isImmutable() immutable} {@link CompInfo} instances are not stored, the store keeps only their
+ * values and creates an equal {@link CompInfo} when one is {@link #info(int) needed}.<br>
+ * modifiable {@link CompInfo} instances are stored, because they may be modified after they were added. then
+ * {@link #refresh()} needs to be invoked before the new values are used.
+ */
+final class CompStore {
+	
+	private static final int X      = 0;
+	private static final int Y      = 1;
+	private static final int W      = 2;
+	private static final int H      = 3;
+	private static final int STYLE  = 4;
+	private static final int VALUES = 5;
+	
+	private static final int MIN_CAPACITY = 8;
+	
+	private Entry[]     comps  = new Entry[MIN_CAPACITY];
+	private int[]       values = new int[MIN_CAPACITY * VALUES];
+	private int         size;
+	// the modifiable CompInfo instances, null until the first one is added
+	private CompInfo[]  sources;
+	private int         mutable;
+	// the slot + 1 of the components, 0 marks a free entry
+	private int[]       table  = new int[MIN_CAPACITY << 1];
+	// the entries of collected components
+	private final ReferenceQueue<Component> collected = new ReferenceQueue<>();
+	
+	private final Map<Style,Integer> styles      = new HashMap<>();
+	private float[]                  xAligns     = new float[MIN_CAPACITY];
+	private float[]                  yAligns     = new float[MIN_CAPACITY];
+	private FillMode[]               widthModes  = new FillMode[MIN_CAPACITY];
+	private FillMode[]               heightModes = new FillMode[MIN_CAPACITY];
+	// if a fill mode of the style may use the CompInfo
+	private boolean[]                usesInfo    = new boolean[MIN_CAPACITY];
+	private int                      styleCount;
+	
+	/**
+	 * returns the number of stored {@link Component Components}
+	 * 
+	 * @return the number of stored {@link Component Components}
+	 */
+	int size() {
+		expunge();
+		return this.size;
+	}
+	
+	/**
+	 * returns the slot of the given {@link Component} or {@code -1} if the {@link Component} is not stored
+	 * 
+	 * @param comp the {@link Component}
+	 * 
+	 * @return the slot of the given {@link Component} or {@code -1}
+	 */
+	int slot(Component comp) {
+		int[] t = this.table;
+		int mask = t.length - 1;
+		int h = hash(comp);
+		for (int i = h & mask;; i = ( i + 1 ) & mask) {
+			int slot = t[i] - 1;
+			if ( slot < 0 ) {
+				return -1;
+			}
+			Entry e = this.comps[slot];
+			if ( e.hash == h && e.get() == comp ) {
+				return slot;
+			}
+		}
+	}
+	
+	/**
+	 * returns the {@link Component} of the slot or {@code null} if the slot is not used
+	 * 
+	 * @param slot the slot
+	 * 
+	 * @return the {@link Component} of the slot or {@code null}
+	 */
+	Component component(int slot) {
+		Entry e = this.comps[slot];
+		return e == null ? null : e.get();
+	}
+	
+	/**
+	 * returns the {@link CompInfo} of the given {@link Component} or {@code null} if the {@link Component} is not
+	 * stored
+	 * 
+	 * @param comp the {@link Component}
+	 * 
+	 * @return the {@link CompInfo} of the given {@link Component} or {@code null}
+	 * 
+	 * @see #info(int)
+	 */
+	CompInfo get(Component comp) {
+		int slot = slot(comp);
+		return slot < 0 ? null : info(slot);
+	}
+	
+	/**
+	 * stores the values of the given {@link CompInfo} for the {@link Component}
+	 * 
+	 * @param comp the {@link Component}
+	 * @param inf  the {@link CompInfo}
+	 */
+	void put(Component comp, CompInfo inf) {
+		expunge();
+		int slot = slot(comp);
+		if ( slot < 0 ) {
+			slot = this.size;
+			if ( slot == this.comps.length ) {
+				grow();
+			}
+			this.size = slot + 1;
+			this.comps[slot] = new Entry(comp, this.collected, slot);
+			insert(slot);
+		} else if ( source(slot) != null ) {
+			this.mutable--;
+			this.sources[slot] = null;
+		}
+		if ( !inf.isImmutable() ) {
+			if ( this.sources == null ) {
+				this.sources = new CompInfo[this.comps.length];
+			}
+			this.sources[slot] = inf;
+			this.mutable++;
+		}
+		pack(slot, inf);
+	}
+	
+	/**
+	 * removes the given {@link Component}
+	 * <p>
+	 * the last slot is moved to the slot of the removed {@link Component}
+	 * 
+	 * @param comp the {@link Component}
+	 */
+	void remove(Component comp) {
+		expunge();
+		int slot = slot(comp);
+		if ( slot >= 0 ) {
+			remove(slot);
+			shrink();
+			compactStyles();
+		}
+	}
+	
+	/**
+	 * removes the slots of the garbage collected {@link Component Components}
+	 */
+	private void expunge() {
+		boolean removed = false;
+		for (Object ref; ( ref = this.collected.poll() ) != null;) {
+			Entry e = (Entry) ref;
+			// the entry may already be removed
+			if ( e.slot < this.size && this.comps[e.slot] == e ) {
+				remove(e.slot);
+				removed = true;
+			}
+		}
+		if ( removed ) {
+			shrink();
+			compactStyles();
+		}
+	}
+	
+	private void remove(int slot) {
+		if ( source(slot) != null ) {
+			this.mutable--;
+		}
+		Entry removed = this.comps[slot];
+		delete(slot);
+		removed.clear();
+		int last = --this.size;
+		if ( slot != last ) {
+			Entry moved = this.comps[last];
+			int index = entry(last);
+			moved.slot = slot;
+			this.comps[slot] = moved;
+			System.arraycopy(this.values, last * VALUES, this.values, slot * VALUES, VALUES);
+			if ( this.sources != null ) {
+				this.sources[slot] = this.sources[last];
+			}
+			this.table[index] = slot + 1;
+		}
+		this.comps[last] = null;
+		if ( this.sources != null ) {
+			this.sources[last] = null;
+		}
+	}
+	
+	/**
+	 * packs the values of all modifiable {@link CompInfo} instances again
+	 * 
+	 * @return {@code true} if a value was modified
+	 */
+	boolean refresh() {
+		expunge();
+		if ( this.mutable == 0 ) {
+			return false;
+		}
+		boolean modified = false;
+		for (int slot = 0; slot < this.size; slot++) {
+			CompInfo inf = this.sources[slot];
+			if ( inf != null && pack(slot, inf) ) {
+				modified = true;
+			}
+		}
+		compactStyles();
+		return modified;
+	}
+	
+	/**
+	 * returns the {@link CompInfo} of the slot
+	 * <p>
+	 * for a modifiable {@link CompInfo} the instance passed to {@link #put(Component, CompInfo)} is returned, for
+	 * an immutable {@link CompInfo} an equal immutable instance is created
+	 * 
+	 * @param slot the slot
+	 * 
+	 * @return the {@link CompInfo} of the slot
+	 */
+	CompInfo info(int slot) {
+		CompInfo inf = source(slot);
+		if ( inf != null ) {
+			return inf;
+		}
+		int off = slot * VALUES;
+		int s = this.values[off + STYLE];
+		return CompInfo.unchecked(this.values[off + X], this.values[off + Y], this.values[off + W],
+			this.values[off + H], this.xAligns[s], this.yAligns[s], this.widthModes[s], this.heightModes[s]);
+	}
+	
+	/**
+	 * returns the {@link CompInfo} which should be passed to the {@link #widthMode(int) width} and
+	 * {@link #heightMode(int) height} fill modes of the slot
+	 * <p>
+	 * the {@link FillMode} implementations of this package do not use the {@link CompInfo}, if the slot only uses them
+	 * {@code null} is returned, so no {@link CompInfo} needs to be created
+	 * 
+	 * @param slot the slot
+	 * 
+	 * @return the {@link CompInfo} for the fill modes or {@code null}
+	 */
+	CompInfo fillModeInfo(int slot) {
+		CompInfo inf = source(slot);
+		if ( inf != null || !this.usesInfo[this.values[slot * VALUES + STYLE]] ) {
+			return inf;
+		}
+		return info(slot);
+	}
+	
+	private CompInfo source(int slot) {
+		CompInfo[] s = this.sources;
+		return s == null ? null : s[slot];
+	}
+	
+	int x(int slot) {
+		return this.values[slot * VALUES + X];
+	}
+	
+	int y(int slot) {
+		return this.values[slot * VALUES + Y];
+	}
+	
+	int w(int slot) {
+		return this.values[slot * VALUES + W];
+	}
+	
+	int h(int slot) {
+		return this.values[slot * VALUES + H];
+	}
+	
+	float xAlign(int slot) {
+		return this.xAligns[this.values[slot * VALUES + STYLE]];
+	}
+	
+	float yAlign(int slot) {
+		return this.yAligns[this.values[slot * VALUES + STYLE]];
+	}
+	
+	FillMode widthMode(int slot) {
+		return this.widthModes[this.values[slot * VALUES + STYLE]];
+	}
+	
+	FillMode heightMode(int slot) {
+		return this.heightModes[this.values[slot * VALUES + STYLE]];
+	}
+	
+	// returns true if a value of the slot was modified
+	private boolean pack(int slot, CompInfo inf) {
+		int off = slot * VALUES;
+		int[] v = this.values;
+		int style = style(inf.alignx, inf.aligny, inf.widthMode, inf.heightMode);
+		boolean modified = v[off + X] != inf.x || v[off + Y] != inf.y || v[off + W] != inf.w || v[off + H] != inf.h
+			|| v[off + STYLE] != style;
+		v[off + X] = inf.x;
+		v[off + Y] = inf.y;
+		v[off + W] = inf.w;
+		v[off + H] = inf.h;
+		v[off + STYLE] = style;
+		return modified;
+	}
+	
+	private int style(float xAlign, float yAlign, FillMode widthMode, FillMode heightMode) {
+		Style key = new Style(xAlign, yAlign, widthMode, heightMode);
+		Integer index = this.styles.get(key);
+		if ( index != null ) {
+			return index.intValue();
+		}
+		int s = this.styleCount++;
+		if ( s == this.xAligns.length ) {
+			int len = s << 1;
+			this.xAligns = Arrays.copyOf(this.xAligns, len);
+			this.yAligns = Arrays.copyOf(this.yAligns, len);
+			this.widthModes = Arrays.copyOf(this.widthModes, len);
+			this.heightModes = Arrays.copyOf(this.heightModes, len);
+			this.usesInfo = Arrays.copyOf(this.usesInfo, len);
+		}
+		this.xAligns[s] = xAlign;
+		this.yAligns[s] = yAlign;
+		this.widthModes[s] = widthMode;
+		this.heightModes[s] = heightMode;
+		this.usesInfo[s] = !FillMode.MulFillMode.builtIn(widthMode) || !FillMode.MulFillMode.builtIn(heightMode);
+		this.styles.put(key, Integer.valueOf(s));
+		return s;
+	}
+	
+	// removed components and modified alignments leave unused styles behind
+	private void compactStyles() {
+		if ( this.styleCount <= ( this.size << 1 ) + MIN_CAPACITY ) {
+			return;
+		}
+		float[] xa = this.xAligns;
+		float[] ya = this.yAligns;
+		FillMode[] wm = this.widthModes;
+		FillMode[] hm = this.heightModes;
+		int len = Math.max(MIN_CAPACITY, this.size);
+		this.xAligns = new float[len];
+		this.yAligns = new float[len];
+		this.widthModes = new FillMode[len];
+		this.heightModes = new FillMode[len];
+		this.usesInfo = new boolean[len];
+		this.styleCount = 0;
+		this.styles.clear();
+		for (int off = STYLE, end = this.size * VALUES; off < end; off += VALUES) {
+			int s = this.values[off];
+			this.values[off] = style(xa[s], ya[s], wm[s], hm[s]);
+		}
+	}
+	
+	/**
+	 * returns the number of slots which can be used before the arrays need to grow
+	 * 
+	 * @return the number of slots which can be used before the arrays need to grow
+	 */
+	int capacity() {
+		return this.comps.length;
+	}
+	
+	private void grow() {
+		resize(this.comps.length << 1);
+	}
+	
+	// halve the arrays when at most a quarter is used, so a store which held many components does not keep them
+	private void shrink() {
+		int len = this.comps.length;
+		while ( len > MIN_CAPACITY && this.size <= len >>> 2 ) {
+			len >>>= 1;
+		}
+		if ( len != this.comps.length ) {
+			resize(len);
+		}
+	}
+	
+	private void resize(int len) {
+		this.comps = Arrays.copyOf(this.comps, len);
+		this.values = Arrays.copyOf(this.values, len * VALUES);
+		if ( this.sources != null ) {
+			this.sources = Arrays.copyOf(this.sources, len);
+		}
+		// keep the load factor of the table at most 1/2
+		this.table = new int[len << 1];
+		for (int slot = 0; slot < this.size; slot++) {
+			insert(slot);
+		}
+	}
+	
+	private void insert(int slot) {
+		int[] t = this.table;
+		int mask = t.length - 1;
+		int i = this.comps[slot].hash & mask;
+		while ( t[i] != 0 ) {
+			i = ( i + 1 ) & mask;
+		}
+		t[i] = slot + 1;
+	}
+	
+	// the index of the slot in the table
+	private int entry(int slot) {
+		int[] t = this.table;
+		int mask = t.length - 1;
+		int i = this.comps[slot].hash & mask;
+		while ( t[i] != slot + 1 ) {
+			i = ( i + 1 ) & mask;
+		}
+		return i;
+	}
+	
+	private void delete(int slot) {
+		int[] t = this.table;
+		int mask = t.length - 1;
+		int free = entry(slot);
+		// move the following entries back, so no entry is behind a free entry
+		for (int i = ( free + 1 ) & mask; t[i] != 0; i = ( i + 1 ) & mask) {
+			int home = this.comps[t[i] - 1].hash & mask;
+			if ( ( ( i - home ) & mask ) >= ( ( i - free ) & mask ) ) {
+				t[free] = t[i];
+				free = i;
+			}
+		}
+		t[free] = 0;
+	}
+	
+	private static int hash(Component comp) {
+		int h = System.identityHashCode(comp);
+		return h ^ ( h >>> 16 );
+	}
+	
+	/**
+	 * invokes the action for each {@link Component}, which was not yet collected, with its {@link CompInfo}
+	 * 
+	 * @param action the action
+	 */
+	void forEach(BiConsumer<? super Component,? super CompInfo> action) {
+		for (int slot = 0; slot < this.size; slot++) {
+			Component comp = this.comps[slot].get();
+			if ( comp != null ) {
+				action.accept(comp, info(slot));
+			}
+		}
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public String toString() {
+		StringJoiner sj = new StringJoiner(", ", "{", "}");
+		for (int slot = 0; slot < this.size; slot++) {
+			Component comp = this.comps[slot].get();
+			if ( comp != null ) {
+				sj.add(comp + "=" + info(slot));
+			}
+		}
+		return sj.toString();
+	}
+	
+	/**
+	 * the weak reference to a {@link Component}, which also knows the slot and the hash of the {@link Component}, so
+	 * the slot can be removed after the {@link Component} was collected
+	 */
+	private static final class Entry extends WeakReference<Component> {
+		
+		private final int hash;
+		private int       slot;
+		
+		private Entry(Component comp, ReferenceQueue<Component> queue, int slot) {
+			super(comp, queue);
+			this.hash = hash(comp);
+			this.slot = slot;
+		}
+		
+	}
+	
+	/**
+	 * the key of a style: the alignments are compared by their bits and the fill modes by identity, so a style
+	 * always contains the exact values of the {@link CompInfo}
+	 */
+	private static final class Style {
+		
+		private final int      xAlign;
+		private final int      yAlign;
+		private final FillMode widthMode;
+		private final FillMode heightMode;
+		
+		private Style(float xAlign, float yAlign, FillMode widthMode, FillMode heightMode) {
+			this.xAlign = Float.floatToRawIntBits(xAlign);
+			this.yAlign = Float.floatToRawIntBits(yAlign);
+			this.widthMode = widthMode;
+			this.heightMode = heightMode;
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + this.xAlign;
+			result = prime * result + this.yAlign;
+			result = prime * result + System.identityHashCode(this.widthMode);
+			result = prime * result + System.identityHashCode(this.heightMode);
+			return result;
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public boolean equals(Object obj) {
+			if ( this == obj ) { return true; }
+			if ( !( obj instanceof Style ) ) { return false; }
+			Style other = (Style) obj;
+			if ( this.xAlign != other.xAlign ) { return false; }
+			if ( this.yAlign != other.yAlign ) { return false; }
+			if ( this.widthMode != other.widthMode ) { return false; }
+			return this.heightMode == other.heightMode;
+		}
+		
+	}
+	
+}
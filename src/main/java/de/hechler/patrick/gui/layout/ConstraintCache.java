@@ -0,0 +1,210 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * a bounded cache for parsed constraint strings
+ * <p>
+ * the {@link PatGridLayout} parses the {@link String} constraints of its {@link java.awt.Component Components} with
+ * {@link CompInfo#parse(String)}. since the same constraints are often used many times, the parsed {@link CompInfo}
+ * instances are cached here. the cached instances are {@link CompInfo#immutable() immutable}, so all
+ * {@link java.awt.Component Components} with the same constraint share a single {@link CompInfo} instance.
+ * <p>
+ * each {@link PatGridLayout} has its own cache, unless a cache is {@link PatGridLayout#constraintCache(ConstraintCache)
+ * shared} between layouts. the cache keeps the {@link #maximumSize() most} recently used constraints, when it is full
+ * the least recently used constraint is removed. the cache can be disabled by setting the maximum size to {@code 0}.
+ * <p>
+ * this class is thread safe
+ * 
+ * @author Patrick Hechler
+ */
+public final class ConstraintCache {
+	
+	/**
+	 * the default maximum number of cached constraints
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 256;
+	
+	private final Map<String,CompInfo> cache = new LinkedHashMap<>(16, 0.75f, true) {
+		
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String,CompInfo> eldest) {
+			return size() > ConstraintCache.this.maximumSize;
+		}
+		
+	};
+	
+	private int  maximumSize;
+	private long hits;
+	private long misses;
+	
+	/**
+	 * creates a new empty cache with the {@link #DEFAULT_MAXIMUM_SIZE default} maximum size
+	 */
+	public ConstraintCache() {
+		this.maximumSize = DEFAULT_MAXIMUM_SIZE;
+	}
+	
+	/**
+	 * creates a new empty cache with the given maximum size
+	 * 
+	 * @param maximumSize the maximum number of cached constraints ({@code 0} disables the cache)
+	 * 
+	 * @throws IllegalArgumentException if {@code maximumSize} is negative
+	 */
+	public ConstraintCache(int maximumSize) throws IllegalArgumentException {
+		this.maximumSize = checkMaximumSize(maximumSize);
+	}
+	
+	private static int checkMaximumSize(int maximumSize) throws IllegalArgumentException {
+		if ( maximumSize < 0 ) {
+			throw new IllegalArgumentException("maximumSize < 0: " + maximumSize);
+		}
+		return maximumSize;
+	}
+	
+	/**
+	 * returns the {@link CompInfo} of the given constraint
+	 * <p>
+	 * if the constraint is in the cache the cached instance is returned, otherwise the constraint is
+	 * {@link CompInfo#parse(String) parsed} and added to the cache
+	 * 
+	 * @param constraint the constraint to be parsed
+	 * 
+	 * @return an {@link CompInfo#immutable() immutable} {@link CompInfo} instance
+	 * 
+	 * @throws IllegalArgumentException if the constraint is invalid
+	 */
+	CompInfo compInfo(String constraint) throws IllegalArgumentException {
+		CompInfo template;
+		synchronized ( this.cache ) {
+			if ( this.maximumSize == 0 ) {
+				this.misses++;
+				return CompInfo.parse(constraint).immutable();
+			}
+			template = this.cache.get(constraint);
+			if ( template != null ) {
+				this.hits++;
+				return template;
+			}
+			this.misses++;
+		}
+		template = CompInfo.parse(constraint).immutable();
+		synchronized ( this.cache ) {
+			if ( this.maximumSize != 0 ) {
+				this.cache.putIfAbsent(constraint, template);
+			}
+		}
+		return template;
+	}
+	
+	/**
+	 * returns the maximum number of cached constraints
+	 * 
+	 * @return the maximum number of cached constraints
+	 */
+	public int maximumSize() {
+		synchronized ( this.cache ) {
+			return this.maximumSize;
+		}
+	}
+	
+	/**
+	 * sets the maximum number of cached constraints
+	 * <p>
+	 * if the cache contains more constraints, the least recently used are removed. a value of {@code 0} disables the
+	 * cache
+	 * 
+	 * @param maximumSize the maximum number of cached constraints
+	 * 
+	 * @throws IllegalArgumentException if {@code maximumSize} is negative
+	 */
+	public void maximumSize(int maximumSize) throws IllegalArgumentException {
+		checkMaximumSize(maximumSize);
+		synchronized ( this.cache ) {
+			this.maximumSize = maximumSize;
+			if ( this.cache.size() > maximumSize ) {
+				int remove = this.cache.size() - maximumSize;
+				Iterator<CompInfo> iter = this.cache.values().iterator();
+				for (int i = 0; i < remove; i++) {
+					iter.next();
+					iter.remove();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * returns the number of cached constraints
+	 * 
+	 * @return the number of cached constraints
+	 */
+	public int size() {
+		synchronized ( this.cache ) {
+			return this.cache.size();
+		}
+	}
+	
+	/**
+	 * returns the number of constraints which were found in this cache
+	 * 
+	 * @return the number of cache hits
+	 */
+	public long hits() {
+		synchronized ( this.cache ) {
+			return this.hits;
+		}
+	}
+	
+	/**
+	 * returns the number of constraints which had to be parsed
+	 * 
+	 * @return the number of cache misses
+	 */
+	public long misses() {
+		synchronized ( this.cache ) {
+			return this.misses;
+		}
+	}
+	
+	/**
+	 * removes all cached constraints and resets the {@link #hits()} and {@link #misses()} counters
+	 */
+	public void clear() {
+		synchronized ( this.cache ) {
+			this.cache.clear();
+			this.hits = 0L;
+			this.misses = 0L;
+		}
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public String toString() {
+		synchronized ( this.cache ) {
+			return "ConstraintCache [size=" + this.cache.size() + ", maximumSize=" + this.maximumSize + ", hits="
+				+ this.hits + ", misses=" + this.misses + "]";
+		}
+	}
+	
+}
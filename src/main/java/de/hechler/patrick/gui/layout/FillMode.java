@@ -18,6 +18,8 @@ package de.hechler.patrick.gui.layout;
 
 import java.awt.Component;
 import java.awt.Dimension;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * this interface specifies how to much a one dimensional area should be filled.<br>
@@ -86,6 +88,120 @@ public interface FillMode {
 	 */
 	int size(Component comp, CompInfo info, int maxWidth, int maxHeigth, boolean width);
 	
+	/**
+	 * return the size (width/height) the component should ideally have
+	 * <p>
+	 * the {@link SizeHints} contain the minimum, preferred and maximum size of the component, which were already
+	 * queried by the layout manager. implementations should use them instead of querying the component again.<br>
+	 * the default implementation ignores the hints and delegates to
+	 * {@link #size(Component, CompInfo, int, int, boolean)}
+	 * 
+	 * @param comp      the component
+	 * @param info      the info of the component
+	 * @param hints     the size hints of the component
+	 * @param maxWidth  the maximum width
+	 * @param maxHeigth the maximum height
+	 * @param width     if the width or height should be returned
+	 * 
+	 * @return the size (width/height) the component should ideally have
+	 */
+	default int size(Component comp, CompInfo info, SizeHints hints, int maxWidth, int maxHeigth, boolean width) {
+		return size(comp, info, maxWidth, maxHeigth, width);
+	}
+	
+	/**
+	 * the minimum, preferred and maximum size of a component
+	 * <p>
+	 * the sizes are queried once from the component by the layout manager, they stay valid until the layout of the
+	 * container is invalidated.<br>
+	 * a {@link SizeHints} instance is reused by the layout manager for all components of a container, so it should
+	 * not be stored
+	 */
+	final class SizeHints {
+		
+		private static final int MINIMUM   = 0;
+		private static final int PREFERRED = 2;
+		private static final int MAXIMUM   = 4;
+		
+		/**
+		 * the number of values stored for each component
+		 */
+		static final int VALUES = 6;
+		
+		private int[] values;
+		private int   offset;
+		
+		SizeHints() {}
+		
+		/**
+		 * sets the values of the hints, for each component {@link #VALUES} values are stored in this order: minimum
+		 * width and height, preferred width and height and maximum width and height
+		 * 
+		 * @param values the values of all components
+		 */
+		void values(int[] values) {
+			this.values = values;
+		}
+		
+		/**
+		 * returns the values of all components
+		 * 
+		 * @return the values of all components (or {@code null} if they were not yet set)
+		 */
+		int[] values() {
+			return this.values;
+		}
+		
+		/**
+		 * selects the component, whose sizes should be returned
+		 * 
+		 * @param index the index of the component
+		 */
+		void component(int index) {
+			this.offset = index * VALUES;
+		}
+		
+		/**
+		 * returns the minimum width or height of the component
+		 * 
+		 * @param width if the width or height should be returned
+		 * 
+		 * @return the minimum width or height of the component
+		 * 
+		 * @see Component#getMinimumSize()
+		 */
+		public int minimum(boolean width) {
+			return this.values[this.offset + MINIMUM + ( width ? 0 : 1 )];
+		}
+		
+		/**
+		 * returns the preferred width or height of the component
+		 * 
+		 * @param width if the width or height should be returned
+		 * 
+		 * @return the preferred width or height of the component
+		 * 
+		 * @see Component#getPreferredSize()
+		 */
+		public int preferred(boolean width) {
+			return this.values[this.offset + PREFERRED + ( width ? 0 : 1 )];
+		}
+		
+		/**
+		 * returns the maximum width or height of the component
+		 * 
+		 * @param width if the width or height should be returned
+		 * 
+		 * @return the maximum width or height of the component
+		 * 
+		 * @see Component#getMaximumSize()
+		 */
+		public int maximum(boolean width) {
+			return this.values[this.offset + MAXIMUM + ( width ? 0 : 1 )];
+		}
+		
+	}
+	
 	/**
 	 * this extension of the fill mode can calculate both fill modes at once<br>
 	 * note that this interface should only be implemented when there is a gain (either in memory or speed) when
@@ -98,6 +214,99 @@ public interface FillMode {
 		
 		Dimension bothSizes(Component comp, CompInfo info, int maxWidth, int maxHeigth, boolean width, FillMode other);
 		
+		/**
+		 * calculates both sizes at once using the given {@link SizeHints}
+		 * <p>
+		 * the default implementation ignores the hints and delegates to
+		 * {@link #bothSizes(Component, CompInfo, int, int, boolean, FillMode)}
+		 * 
+		 * @param comp      the component
+		 * @param info      the info of the component
+		 * @param hints     the size hints of the component
+		 * @param maxWidth  the maximum width
+		 * @param maxHeigth the maximum height
+		 * @param width     if this fill mode is used for the width
+		 * @param other     the fill mode of the other dimension
+		 * 
+		 * @return both sizes or {@code null}
+		 * 
+		 * @see FillMode#size(Component, CompInfo, SizeHints, int, int, boolean)
+		 */
+		default Dimension bothSizes(Component comp, CompInfo info, SizeHints hints, int maxWidth, int maxHeigth,
+			boolean width, FillMode other) {
+			return bothSizes(comp, info, maxWidth, maxHeigth, width, other);
+		}
+		
+		/**
+		 * the value returned by
+		 * {@link #packedSizes(Component, CompInfo, SizeHints, int, int, boolean, FillMode) packedSizes(...)} when the
+		 * sizes could not be calculated at once (like {@code null} for the {@link Dimension} methods)
+		 */
+		long NO_SIZES = Long.MIN_VALUE;
+		
+		/**
+		 * calculates both sizes at once and returns them {@link #pack(int, int) packed} in a single {@code long}, so no
+		 * {@link Dimension} needs to be allocated
+		 * <p>
+		 * the default implementation delegates to
+		 * {@link #bothSizes(Component, CompInfo, SizeHints, int, int, boolean, FillMode) bothSizes(...)}
+		 * 
+		 * @param comp      the component
+		 * @param info      the info of the component
+		 * @param hints     the size hints of the component
+		 * @param maxWidth  the maximum width
+		 * @param maxHeigth the maximum height
+		 * @param width     if this fill mode is used for the width
+		 * @param other     the fill mode of the other dimension
+		 * 
+		 * @return both sizes {@link #pack(int, int) packed} or {@link #NO_SIZES}
+		 */
+		default long packedSizes(Component comp, CompInfo info, SizeHints hints, int maxWidth, int maxHeigth,
+			boolean width, FillMode other) {
+			Dimension dim = bothSizes(comp, info, hints, maxWidth, maxHeigth, width, other);
+			if ( dim == null ) {
+				return NO_SIZES;
+			}
+			return pack(dim.width, dim.height);
+		}
+		
+		/**
+		 * packs the width and height in a single {@code long}
+		 * 
+		 * @param width  the width
+		 * @param height the height
+		 * 
+		 * @return the packed sizes
+		 * 
+		 * @see #width(long)
+		 * @see #height(long)
+		 */
+		static long pack(int width, int height) {
+			return ( (long) width << 32 ) | ( height & 0xFFFFFFFFL );
+		}
+		
+		/**
+		 * returns the width of the {@link #pack(int, int) packed} sizes
+		 * 
+		 * @param sizes the packed sizes
+		 * 
+		 * @return the width
+		 */
+		static int width(long sizes) {
+			return (int) ( sizes >> 32 );
+		}
+		
+		/**
+		 * returns the height of the {@link #pack(int, int) packed} sizes
+		 * 
+		 * @param sizes the packed sizes
+		 * 
+		 * @return the height
+		 */
+		static int height(long sizes) {
+			return (int) sizes;
+		}
+		
 	}
 	
 	/**
@@ -134,6 +343,38 @@ public interface FillMode {
 		return new MulFillMode(mode, mul);
 	}
 	
+	/**
+	 * combines a multiplicator with a {@link FillMode} in an immutable {@link MulFillMode} instance
+	 * <p>
+	 * unlike the instances returned by {@link #fillMode(float, FillMode)} the returned instance can not be modified
+	 * ({@link MulFillMode#set(FillMode, float)} throws an {@link UnsupportedOperationException}).<br>
+	 * when {@code mode} is a {@link SimpleFillMode} (or an immutable {@link MulFillMode} of a {@link SimpleFillMode})
+	 * the instances are interned, so for example every <code>immutableFillMode(0.5f, FILL_MAXIMUM)</code> invocation
+	 * returns the same instance and the instances can be compared by identity.<br>
+	 * at most 1024 instances are interned, after that new values are returned as immutable instances which are not
+	 * interned (they are still equal to other instances with the same values).<br>
+	 * if {@code mode} is a modifiable {@link MulFillMode}, an immutable copy of it is used as backing type, so later
+	 * changes of {@code mode} are not visible in the returned instance.<br>
+	 * because an interned instance may be used by any other caller it can not be modified, use
+	 * {@link #fillMode(float, FillMode)} to create a modifiable instance
+	 * 
+	 * @param mul  the multiplicator
+	 * @param mode the {@link FillMode}
+	 * 
+	 * @return the immutable combined {@link FillMode}
+	 * 
+	 * @throws NullPointerException     if {@code mode} is {@code null}
+	 * @throws IllegalArgumentException if {@code mode} is a {@link SimpleFillMode} and {@code mul} is not valid for the
+	 *                                      given {@code mode}
+	 * 
+	 * @see #fillMode(float, FillMode)
+	 */
+	public static MulFillMode immutableFillMode(float mul, FillMode mode)
+		throws NullPointerException, IllegalArgumentException {
+		if ( mode == null ) throw new NullPointerException("the simple fill-mode is null");
+		return MulFillMode.intern(mul, mode);
+	}
+	
 	/**
 	 * this {@code class} implements the {@link FillMode} interface
 	 * <p>
@@ -177,8 +418,8 @@ public interface FillMode {
 					return dim;
 				}
 				if ( other instanceof MulFillMode cfm && cfm.type == this ) {
-					if ( width ) dim.height *= cfm.mul;
-					else dim.width *= cfm.mul;
+					if ( width ) dim.height = (int) ( dim.height * cfm.mul );
+					else dim.width = (int) ( dim.width * cfm.mul );
 					return dim;
 				}
 				if ( width ) dim.height = other.size(comp, info, maxWidth, maxHeigth, false);
@@ -186,6 +427,47 @@ public interface FillMode {
 				return dim;
 			}
 			
+			@Override
+			public Dimension bothSizes(Component comp, CompInfo info, SizeHints hints, int maxWidth, int maxHeigth,
+				boolean width, FillMode other) {
+				long sizes = packedSizes(comp, info, hints, maxWidth, maxHeigth, width, other);
+				return new Dimension(AdvancedFillMode.width(sizes), AdvancedFillMode.height(sizes));
+			}
+			
+			@Override
+			public long packedSizes(Component comp, CompInfo info, SizeHints hints, int maxWidth, int maxHeigth,
+				boolean width, FillMode other) {
+				int w;
+				int h;
+				switch ( super.mode ) {
+				case SimpleFillMode.FILL_MAXIMUM -> {
+					w = hints.maximum(true);
+					h = hints.maximum(false);
+				}
+				case SimpleFillMode.FILL_MINIMUM -> {
+					w = hints.minimum(true);
+					h = hints.minimum(false);
+				}
+				case SimpleFillMode.FILL_PREFERRED -> {
+					w = hints.preferred(true);
+					h = hints.preferred(false);
+				}
+				default -> throw new AssertionError("illegal mode: " + super.mode);
+				}
+				if ( other == this ) {
+					return AdvancedFillMode.pack(w, h);
+				}
+				if ( other instanceof MulFillMode cfm && cfm.type == this ) {
+					if ( width ) h = (int) ( h * cfm.mul );
+					else w = (int) ( w * cfm.mul );
+				} else if ( width ) {
+					h = other.size(comp, info, hints, maxWidth, maxHeigth, false);
+				} else {
+					w = other.size(comp, info, hints, maxWidth, maxHeigth, true);
+				}
+				return AdvancedFillMode.pack(w, h);
+			}
+			
 		}
 		
 		/** {@inheritDoc} */
@@ -207,6 +489,18 @@ public interface FillMode {
 			return dim.height;
 		}
 		
+		/** {@inheritDoc} */
+		@Override
+		public int size(Component comp, CompInfo info, SizeHints hints, int maxWidth, int maxHeigth, boolean width) {
+			return switch ( this.mode ) {
+			case FILL_COMPLETLY -> width ? maxWidth : maxHeigth;
+			case FILL_MAXIMUM -> hints.maximum(width);
+			case FILL_MINIMUM -> hints.minimum(width);
+			case FILL_PREFERRED -> hints.preferred(width);
+			default -> throw new AssertionError("illegal mode: " + this.mode);
+			};
+		}
+		
 		/** {@inheritDoc} */
 		@Override
 		public String toString() {
@@ -228,8 +522,12 @@ public interface FillMode {
 	 */
 	public static sealed class MulFillMode implements FillMode {
 		
-		FillMode type;
-		float    mul;
+		private static final int                          MAX_INTERNED = 1024;
+		private static final Map<MulFillMode,MulFillMode> INTERNED     = new ConcurrentHashMap<>();
+		
+		FillMode              type;
+		float                 mul;
+		private final boolean immutable;
 		
 		/**
 		 * creates a new {@link MulFillMode} instance with the given type
@@ -238,7 +536,86 @@ public interface FillMode {
 		 * @param mul  the multiplicator
 		 */
 		public MulFillMode(FillMode type, float mul) {
+			this(type, mul, false);
+		}
+		
+		MulFillMode(FillMode type, float mul, boolean immutable) {
 			set(type, mul);
+			this.immutable = immutable;
+		}
+		
+		/**
+		 * returns an immutable instance with the given values, the instance is shared when the type is
+		 * {@link #shareable(FillMode) shareable}
+		 * 
+		 * @param mul  the multiplicator
+		 * @param type the backing type
+		 * 
+		 * @return an immutable instance with the given values
+		 * 
+		 * @see FillMode#immutableFillMode(float, FillMode)
+		 */
+		static MulFillMode intern(float mul, FillMode type) {
+			FillMode t = immutable(type);
+			MulFillMode mode = t instanceof AdvancedFillMode ? new AdvancedMulFillMode(t, mul, true)
+				: new MulFillMode(t, mul, true);
+			if ( !shareable(t) ) {
+				return mode;
+			}
+			MulFillMode interned = INTERNED.get(mode);
+			if ( interned != null ) {
+				return interned;
+			}
+			if ( INTERNED.size() >= MAX_INTERNED ) {
+				return mode;
+			}
+			interned = INTERNED.putIfAbsent(mode, mode);
+			return interned != null ? interned : mode;
+		}
+		
+		/**
+		 * returns an immutable version of the given mode, modifiable {@link MulFillMode} instances are replaced by an
+		 * {@link #intern(float, FillMode) immutable} instance, all other modes are returned unchanged
+		 * 
+		 * @param mode the fill mode
+		 * 
+		 * @return an immutable version of the given mode
+		 */
+		static FillMode immutable(FillMode mode) {
+			if ( mode instanceof MulFillMode mfm && !mfm.immutable ) {
+				return intern(mfm.mul, mfm.type);
+			}
+			return mode;
+		}
+		
+		/**
+		 * returns {@code true} if the given mode is implemented in this package ({@link SimpleFillMode} or a
+		 * {@link MulFillMode} of such a mode), these modes do not use the {@link CompInfo} passed to them
+		 * 
+		 * @param mode the fill mode
+		 * 
+		 * @return {@code true} if the given mode is implemented in this package
+		 */
+		static boolean builtIn(FillMode mode) {
+			if ( mode instanceof MulFillMode mfm ) {
+				return builtIn(mfm.type);
+			}
+			return mode instanceof SimpleFillMode;
+		}
+		
+		/**
+		 * returns {@code true} if the given mode is known to be immutable and thus can be shared (a
+		 * {@link SimpleFillMode} or an immutable {@link MulFillMode} of a shareable type)
+		 * 
+		 * @param mode the fill mode
+		 * 
+		 * @return {@code true} if the given mode can be shared
+		 */
+		static boolean shareable(FillMode mode) {
+			if ( mode instanceof MulFillMode mfm ) {
+				return mfm.immutable && shareable(mfm.type);
+			}
+			return mode instanceof SimpleFillMode;
 		}
 		
 		/**
@@ -250,6 +627,17 @@ public interface FillMode {
 			return this.mul;
 		}
 		
+		/**
+		 * returns {@code true} if this fill mode can not be modified
+		 * 
+		 * @return {@code true} if this fill mode can not be modified
+		 * 
+		 * @see FillMode#immutableFillMode(float, FillMode)
+		 */
+		public boolean isImmutable() {
+			return this.immutable;
+		}
+		
 		/**
 		 * extends the {@link MulFillMode} class by the {@link AdvancedFillMode} interface
 		 */
@@ -265,6 +653,10 @@ public interface FillMode {
 				super(type, mul);
 			}
 			
+			AdvancedMulFillMode(FillMode type, float mul, boolean immutable) {
+				super(type, mul, immutable);
+			}
+			
 			/** {@inheritDoc} */
 			@Override
 			public Dimension bothSizes(Component comp, CompInfo info, int maxWidth, int maxHeigth, boolean width,
@@ -275,17 +667,17 @@ public interface FillMode {
 					if ( other instanceof MulFillMode mfm ) {
 						Dimension dim = afm.bothSizes(comp, info, maxWidth, maxHeigth, width, mfm.type);
 						if ( width ) {
-							dim.width *= super.mul;
-							dim.height *= mfm.mul;
+							dim.width = (int) ( dim.width * super.mul );
+							dim.height = (int) ( dim.height * mfm.mul );
 						} else {
-							dim.height *= super.mul;
-							dim.width *= mfm.mul;
+							dim.height = (int) ( dim.height * super.mul );
+							dim.width = (int) ( dim.width * mfm.mul );
 						}
 						return dim;
 					} else {
 						Dimension dim = afm.bothSizes(comp, info, maxWidth, maxHeigth, width, other);
-						if ( width ) dim.width *= super.mul;
-						else dim.height *= super.mul;
+						if ( width ) dim.width = (int) ( dim.width * super.mul );
+						else dim.height = (int) ( dim.height * super.mul );
 						return dim;
 					}
 				} else {
@@ -296,6 +688,46 @@ public interface FillMode {
 				}
 			}
 			
+			/** {@inheritDoc} */
+			@Override
+			public Dimension bothSizes(Component comp, CompInfo info, SizeHints hints, int maxWidth, int maxHeigth,
+				boolean width, FillMode other) {
+				long sizes = packedSizes(comp, info, hints, maxWidth, maxHeigth, width, other);
+				if ( sizes == NO_SIZES ) {
+					return null;
+				}
+				return new Dimension(AdvancedFillMode.width(sizes), AdvancedFillMode.height(sizes));
+			}
+			
+			/** {@inheritDoc} */
+			@Override
+			public long packedSizes(Component comp, CompInfo info, SizeHints hints, int maxWidth, int maxHeigth,
+				boolean width, FillMode other) {
+				// see bothSizes, the backing type is not always a AdvancedFillMode
+				if ( super.type instanceof FillMode.AdvancedFillMode afm ) {
+					MulFillMode mfm = other instanceof MulFillMode m ? m : null;
+					long sizes = afm.packedSizes(comp, info, hints, maxWidth, maxHeigth, width,
+						mfm != null ? mfm.type : other);
+					if ( sizes == NO_SIZES ) {
+						return NO_SIZES;
+					}
+					int w = AdvancedFillMode.width(sizes);
+					int h = AdvancedFillMode.height(sizes);
+					if ( width ) {
+						w = (int) ( w * super.mul );
+						if ( mfm != null ) h = (int) ( h * mfm.mul );
+					} else {
+						h = (int) ( h * super.mul );
+						if ( mfm != null ) w = (int) ( w * mfm.mul );
+					}
+					return AdvancedFillMode.pack(w, h);
+				}
+				int a = super.type.size(comp, info, hints, maxWidth, maxHeigth, width);
+				int b = other.size(comp, info, hints, maxWidth, maxHeigth, !width);
+				if ( width ) return AdvancedFillMode.pack(a, b);
+				return AdvancedFillMode.pack(b, a);
+			}
+			
 		}
 		
 		/** {@inheritDoc} */
@@ -304,6 +736,12 @@ public interface FillMode {
 			return (int) ( this.mul * this.type.size(comp, info, maxWidth, maxHeigth, width) );
 		}
 		
+		/** {@inheritDoc} */
+		@Override
+		public int size(Component comp, CompInfo info, SizeHints hints, int maxWidth, int maxHeigth, boolean width) {
+			return (int) ( this.mul * this.type.size(comp, info, hints, maxWidth, maxHeigth, width) );
+		}
+		
 		/**
 		 * sets the type and multiplicator
 		 * 
@@ -312,11 +750,16 @@ public interface FillMode {
 		 * 
 		 * @see FillMode#fillMode(float, FillMode)
 		 * 
-		 * @throws NullPointerException     if {@code mode} is {@code null}
-		 * @throws IllegalArgumentException if {@code mode} is a {@link SimpleFillMode} and {@code mul} is not valid for
-		 *                                      the given {@code mode}
+		 * @throws NullPointerException          if {@code mode} is {@code null}
+		 * @throws IllegalArgumentException      if {@code mode} is a {@link SimpleFillMode} and {@code mul} is not valid
+		 *                                           for the given {@code mode}
+		 * @throws UnsupportedOperationException if this fill mode is {@link #isImmutable() immutable}
 		 */
-		public void set(FillMode type, float mul) throws NullPointerException, IllegalArgumentException {
+		public void set(FillMode type, float mul)
+			throws NullPointerException, IllegalArgumentException, UnsupportedOperationException {
+			if ( this.immutable ) {
+				throw new UnsupportedOperationException("this fill mode is immutable: " + this);
+			}
 			if ( type instanceof SimpleFillMode sfm ) {
 				switch ( sfm.mode ) {
 				case SimpleFillMode.FILL_COMPLETLY, SimpleFillMode.FILL_MAXIMUM:
@@ -356,14 +799,20 @@ public interface FillMode {
 			return result;
 		}
 		
-		/** {@inheritDoc} */
+		/**
+		 * {@inheritDoc}
+		 * <p>
+		 * the backing types are compared with {@link Object#equals(Object) equals}, so a modifiable nested
+		 * {@link MulFillMode} is equal to its {@link FillMode#immutableFillMode(float, FillMode) immutable} copy as long
+		 * as it has the same values
+		 */
 		@Override
 		public boolean equals(Object obj) {
 			if ( this == obj ) { return true; }
 			if ( !( obj instanceof MulFillMode ) ) { return false; }
 			MulFillMode other = (MulFillMode) obj;
 			if ( this.mul != other.mul ) { return false; }
-			return this.type == other.type;
+			return this.type == other.type || this.type.equals(other.type);
 		}
 		
 		/** {@inheritDoc} */
@@ -0,0 +1,84 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import java.awt.Component;
+import java.awt.Rectangle;
+
+/**
+ * the solved bounds of the {@link Component Components} of a {@link LayoutSnapshot}
+ * <p>
+ * a plan is created with {@link LayoutSnapshot#plan()} and is applied with {@link PatGridLayout#apply(LayoutPlan)}
+ * 
+ * @author Patrick Hechler
+ * 
+ * @see LayoutSnapshot
+ */
+public final class LayoutPlan {
+	
+	final LayoutSnapshot snapshot;
+	final int            width;
+	final int            height;
+	final BlockSize      x;
+	final BlockSize      y;
+	// for each component: x, y, width and height
+	final int[]          bounds;
+	// the components whose bounds are calculated when the plan is applied
+	final boolean[]      deferred;
+	
+	LayoutPlan(LayoutSnapshot snapshot, int width, int height, BlockSize x, BlockSize y, int[] bounds,
+		boolean[] deferred) {
+		this.snapshot = snapshot;
+		this.width = width;
+		this.height = height;
+		this.x = x;
+		this.y = y;
+		this.bounds = bounds;
+		this.deferred = deferred;
+	}
+	
+	/**
+	 * returns the snapshot, which was solved by this plan
+	 * 
+	 * @return the snapshot, which was solved by this plan
+	 */
+	public LayoutSnapshot snapshot() {
+		return this.snapshot;
+	}
+	
+	/**
+	 * returns the planned bounds of the {@link Component} with the given index
+	 * <p>
+	 * the bounds of a {@link Component}, which uses a {@link FillMode} which is not implemented in this package, are
+	 * only known after the plan was {@link PatGridLayout#apply(LayoutPlan) applied}, for such a {@link Component}
+	 * {@code null} is returned
+	 * 
+	 * @param index the index of the {@link Component} in the {@link java.awt.Container}
+	 * 
+	 * @return the planned bounds of the {@link Component} or {@code null}
+	 * 
+	 * @throws IndexOutOfBoundsException if the index is invalid
+	 */
+	public Rectangle bounds(int index) throws IndexOutOfBoundsException {
+		if ( this.deferred[index] ) {
+			return null;
+		}
+		int bi = index * 4;
+		return new Rectangle(this.bounds[bi], this.bounds[bi + 1], this.bounds[bi + 2], this.bounds[bi + 3]);
+	}
+	
+}
@@ -0,0 +1,148 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import java.awt.Component;
+import java.awt.Container;
+
+/**
+ * an immutable snapshot of the constraints and the size hints of the {@link Component Components} of a
+ * {@link Container}, which uses a {@link PatGridLayout}
+ * <p>
+ * a snapshot is created with {@link PatGridLayout#snapshot(Container)} on the thread which is allowed to access the
+ * {@link Container} (normally the event dispatch thread). it can then be {@link #plan() solved} on any other thread,
+ * for example:
+ * 
+ * <pre>
+ * LayoutSnapshot snap = layout.snapshot(container);
+ * executor.submit(() -&gt; {
+ * 	LayoutPlan plan = snap.plan();
+ * 	SwingUtilities.invokeLater(() -&gt; {
+ * 		if ( !layout.apply(plan) ) {
+ * 			// the container was modified, create a new snapshot
+ * 		}
+ * 	});
+ * });
+ * </pre>
+ * 
+ * @author Patrick Hechler
+ * 
+ * @see PatGridLayout#snapshot(Container)
+ * @see PatGridLayout#apply(LayoutPlan)
+ */
+public final class LayoutSnapshot {
+	
+	final PatGridLayout   layout;
+	final Container       parent;
+	// the state of the container, identifies the container in PatGridLayout.apply
+	final Object          state;
+	final int             modCount;
+	final Component[]     comps;
+	final int             width;
+	final int             height;
+	final BlockSize.Table xtable;
+	final BlockSize.Table ytable;
+	final int[]           xs;
+	final int[]           ys;
+	final int[]           ws;
+	final int[]           hs;
+	final int             spanCount;
+	final int[]           hints;
+	final float[]         xAligns;
+	final float[]         yAligns;
+	final FillMode[]      widthModes;
+	final FillMode[]      heightModes;
+	// the solved sizes of the container or null if they were not valid
+	final BlockSize       x;
+	final BlockSize       y;
+	
+	LayoutSnapshot(PatGridLayout layout, Container parent, Object state, int modCount, Component[] comps, int width,
+		int height, BlockSize.Table xtable, BlockSize.Table ytable, int[] xs, int[] ys, int[] ws, int[] hs,
+		int spanCount, int[] hints, float[] xAligns, float[] yAligns, FillMode[] widthModes, FillMode[] heightModes,
+		BlockSize x, BlockSize y) {
+		this.layout = layout;
+		this.parent = parent;
+		this.state = state;
+		this.modCount = modCount;
+		this.comps = comps;
+		this.width = width;
+		this.height = height;
+		this.xtable = xtable;
+		this.ytable = ytable;
+		this.xs = xs;
+		this.ys = ys;
+		this.ws = ws;
+		this.hs = hs;
+		this.spanCount = spanCount;
+		this.hints = hints;
+		this.xAligns = xAligns;
+		this.yAligns = yAligns;
+		this.widthModes = widthModes;
+		this.heightModes = heightModes;
+		this.x = x;
+		this.y = y;
+	}
+	
+	/**
+	 * solves this snapshot
+	 * <p>
+	 * this method can be invoked on any thread, it does not access the {@link Container} or its {@link Component
+	 * Components}
+	 * 
+	 * @return the solved plan, which can be {@link PatGridLayout#apply(LayoutPlan) applied} to the {@link Container}
+	 * 
+	 * @throws IllegalStateException if the minimum size of a {@link Component} is too large
+	 */
+	public LayoutPlan plan() throws IllegalStateException {
+		return PatGridLayout.plan(this, this.width, this.height);
+	}
+	
+	/**
+	 * solves this snapshot for the given size of the {@link Container}
+	 * <p>
+	 * this method can be invoked on any thread, it does not access the {@link Container} or its {@link Component
+	 * Components}
+	 * 
+	 * @param width  the width, which the {@link Container} will have when the plan is applied
+	 * @param height the height, which the {@link Container} will have when the plan is applied
+	 * 
+	 * @return the solved plan, which can be {@link PatGridLayout#apply(LayoutPlan) applied} to the {@link Container}
+	 *         once it has the given size
+	 * 
+	 * @throws IllegalStateException if the minimum size of a {@link Component} is too large
+	 */
+	public LayoutPlan plan(int width, int height) throws IllegalStateException {
+		return PatGridLayout.plan(this, width, height);
+	}
+	
+	/**
+	 * returns the {@link Container} of this snapshot
+	 * 
+	 * @return the {@link Container} of this snapshot
+	 */
+	public Container container() {
+		return this.parent;
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public String toString() {
+		return "LayoutSnapshot [components=" + this.comps.length + ", width=" + this.width + ", height=" + this.height
+			+ "]";
+	}
+	
+}
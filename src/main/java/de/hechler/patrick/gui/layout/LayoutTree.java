@@ -0,0 +1,222 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.LayoutManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * lays out a tree of nested {@link Container Containers}, which use a {@link PatGridLayout}, in parallel
+ * <p>
+ * the tree is used in three steps:
+ * <ol>
+ * <li>{@link #snapshot(Container)} captures a {@link LayoutSnapshot} of each {@link Container} of the tree on the
+ * thread which is allowed to access the {@link Container Containers} (normally the event dispatch thread)</li>
+ * <li>{@link #plan(ForkJoinPool)} solves the snapshots on a {@link ForkJoinPool}, once a {@link Container} is solved
+ * the bounds of its child {@link Container Containers} are known, so the sibling subtrees are solved in parallel</li>
+ * <li>{@link #apply()} applies all bounds from the root to the leaves on the thread which is allowed to access the
+ * {@link Container Containers}</li>
+ * </ol>
+ * only {@link Container Containers} whose parent also uses a {@link PatGridLayout} are part of the tree, all other
+ * {@link Container Containers} are laid out as usual when the tree is {@link Container#validate() validated}
+ * 
+ * @author Patrick Hechler
+ * 
+ * @see PatGridLayout#snapshot(Container)
+ * @see PatGridLayout#apply(LayoutPlan)
+ */
+public final class LayoutTree {
+	
+	private final Node root;
+	
+	private LayoutTree(Node root) {
+		this.root = root;
+	}
+	
+	/**
+	 * captures the snapshots of the given {@link Container} and all nested {@link Container Containers}, which use a
+	 * {@link PatGridLayout}
+	 * 
+	 * @param root the root {@link Container}
+	 * 
+	 * @return the tree of the snapshots
+	 * 
+	 * @throws IllegalArgumentException if the root {@link Container} does not use a {@link PatGridLayout}
+	 * @throws IllegalStateException    if a {@link Component} of a {@link Container} is not known to its layout
+	 */
+	public static LayoutTree snapshot(Container root) throws IllegalArgumentException, IllegalStateException {
+		LayoutManager layout = root.getLayout();
+		if ( !( layout instanceof PatGridLayout pgl ) ) {
+			throw new IllegalArgumentException("the root container does not use a PatGridLayout: " + layout);
+		}
+		return new LayoutTree(node(pgl, root));
+	}
+	
+	private static Node node(PatGridLayout layout, Container parent) {
+		// the parent is captured first, querying the sizes of the children already solves them
+		LayoutSnapshot snap = layout.snapshot(parent);
+		Node[] children = null;
+		for (int i = snap.comps.length; --i >= 0;) {
+			Component comp = snap.comps[i];
+			if ( comp instanceof Container c && c.getLayout() instanceof PatGridLayout pgl ) {
+				if ( children == null ) {
+					children = new Node[snap.comps.length];
+				}
+				children[i] = node(pgl, c);
+			}
+		}
+		return new Node(layout, snap, children);
+	}
+	
+	/**
+	 * solves all snapshots of the tree
+	 * <p>
+	 * this method can be invoked on any thread, it does not access the {@link Container Containers} or their
+	 * {@link Component Components}.<br>
+	 * the root is solved for its size when the snapshot was created, every other {@link Container} for the bounds
+	 * planned by its parent. when the bounds of a {@link Container} are only known when the plan of its parent is
+	 * applied (because it uses a {@link FillMode} which is not implemented in this package), its subtree is not
+	 * solved
+	 * 
+	 * @param pool the pool, which solves the sibling subtrees in parallel
+	 * 
+	 * @return this tree
+	 * 
+	 * @throws IllegalStateException if the minimum size of a {@link Component} is too large
+	 */
+	public LayoutTree plan(ForkJoinPool pool) throws IllegalStateException {
+		LayoutSnapshot snap = this.root.snapshot;
+		pool.invoke(new PlanTask(this.root, snap.width, snap.height));
+		return this;
+	}
+	
+	/**
+	 * applies the solved plans to the {@link Container Containers} of the tree
+	 * <p>
+	 * this method has to be invoked on the thread which is allowed to access the {@link Container Containers}
+	 * (normally the event dispatch thread).<br>
+	 * the plans are applied from the root to the leaves, when a plan is no longer valid (see
+	 * {@link PatGridLayout#apply(LayoutPlan)}) its subtree is skipped. the skipped {@link Container Containers} are
+	 * laid out as usual, when the tree is {@link Container#validate() validated}
+	 * 
+	 * @return {@code true} if all plans were applied
+	 * 
+	 * @throws IllegalStateException if the tree was not yet {@link #plan(ForkJoinPool) solved}
+	 */
+	public boolean apply() throws IllegalStateException {
+		if ( this.root.plan == null ) {
+			throw new IllegalStateException("the tree was not yet solved");
+		}
+		return apply(this.root);
+	}
+	
+	private static boolean apply(Node node) {
+		LayoutPlan plan = node.plan;
+		if ( plan == null || !node.layout.apply(plan) ) {
+			return false;
+		}
+		boolean all = true;
+		if ( node.children != null ) {
+			for (Node child : node.children) {
+				if ( child != null && !apply(child) ) {
+					all = false;
+				}
+			}
+		}
+		return all;
+	}
+	
+	/**
+	 * lays out the given {@link Container} and all nested {@link Container Containers} with a {@link PatGridLayout}
+	 * in parallel and then {@link Container#validate() validates} it
+	 * <p>
+	 * this method has to be invoked on the thread which is allowed to access the {@link Container Containers}
+	 * (normally the event dispatch thread), it waits until the pool has solved the tree
+	 * 
+	 * @param root the root {@link Container}
+	 * @param pool the pool, which solves the sibling subtrees in parallel
+	 * 
+	 * @throws IllegalArgumentException if the root {@link Container} does not use a {@link PatGridLayout}
+	 * @throws IllegalStateException    if a {@link Component} of a {@link Container} is not known to its layout or the
+	 *                                      minimum size of a {@link Component} is too large
+	 */
+	public static void validate(Container root, ForkJoinPool pool) throws IllegalArgumentException,
+		IllegalStateException {
+		snapshot(root).plan(pool).apply();
+		root.validate();
+	}
+	
+	private static final class Node {
+		
+		private final PatGridLayout  layout;
+		private final LayoutSnapshot snapshot;
+		// the nodes of the child containers with a PatGridLayout (by component index) or null if there are none
+		private final Node[]         children;
+		private LayoutPlan           plan;
+		
+		private Node(PatGridLayout layout, LayoutSnapshot snapshot, Node[] children) {
+			this.layout = layout;
+			this.snapshot = snapshot;
+			this.children = children;
+		}
+		
+	}
+	
+	private static final class PlanTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final transient Node node;
+		private final int            width;
+		private final int            height;
+		
+		private PlanTask(Node node, int width, int height) {
+			this.node = node;
+			this.width = width;
+			this.height = height;
+		}
+		
+		@Override
+		protected void compute() {
+			LayoutPlan plan = this.node.snapshot.plan(this.width, this.height);
+			this.node.plan = plan;
+			Node[] children = this.node.children;
+			if ( children == null ) {
+				return;
+			}
+			List<PlanTask> tasks = new ArrayList<>();
+			for (int i = 0; i < children.length; i++) {
+				if ( children[i] == null ) {
+					continue;
+				}
+				children[i].plan = null;
+				if ( !plan.deferred[i] ) {
+					int bi = i * 4;
+					tasks.add(new PlanTask(children[i], plan.bounds[bi + 2], plan.bounds[bi + 3]));
+				}
+			}
+			invokeAll(tasks);
+		}
+		
+	}
+	
+}
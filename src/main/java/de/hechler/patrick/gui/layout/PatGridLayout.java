@@ -20,12 +20,17 @@ import java.awt.Component;
 import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.LayoutManager2;
+import java.awt.Rectangle;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -34,15 +39,23 @@ import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JTextField;
+import javax.swing.JViewport;
 import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import de.hechler.patrick.gui.layout.FillMode.AdvancedFillMode;
+import de.hechler.patrick.gui.layout.FillMode.MulFillMode;
+import de.hechler.patrick.gui.layout.FillMode.SizeHints;
 
 /**
  * this class implements the {@link LayoutManager2} interface
  * <p>
  * each {@link PatGridLayout} has:
  * <ul>
- * <li>a map which maps all known {@link Component Components} to a {@link CompInfo} instance</li>
+ * <li>a state for each {@link Container} using the layout, with a packed store which maps its {@link Component
+ * Components} to a {@link CompInfo} instance</li>
  * <li>a list of {@link BlockInfo blocks} for the {@link #xBlocks() x} and {@link #yBlocks() y} axes</li>
  * <li>a list of repeating {@link BlockInfo blocks} for the {@link #xAfterRepeatBlocks() x} and
  * {@link #yAfterRepeatBlocks() y} axes after the above list ran out of blocks</li>
@@ -62,6 +75,9 @@ import javax.swing.WindowConstants;
  * <li>{@link #xAfterRepeatBlocks(BlockInfo[])}/{@link #yAfterRepeatBlocks(BlockInfo[])} sets the x/y repeat blocks</li>
  * <li>{@link #xEmpty(int)}/{@link #yEmpty(int)} sets the empty x/y space between blocks</li>
  * </ul>
+ * the constructors assign the blocks and the empty space directly and do not invoke these setters, so overriding
+ * them does not affect the construction. a subclass keeps the blocks passed to the constructor, older versions
+ * invoked the setters and replaced the blocks of a subclass by empty arrays
  * <p>
  * to add a {@link Component} to a {@link PatGridLayout}:
  * <ul>
@@ -79,6 +95,36 @@ import javax.swing.WindowConstants;
  * </ul>
  * </li>
  * </ul>
+ * the parsed {@link String} constraints are cached by the {@link #constraintCache() ConstraintCache} of the
+ * {@link PatGridLayout}
+ * <p>
+ * the block sizes of an axis are solved for the complete axis: first each {@link Component}, which uses only one
+ * block, sets the size of its block, then each spanning {@link Component} grows its blocks only by the size it is
+ * still missing. so a spanning {@link Component} does not grow blocks, which are already large enough because of
+ * the other rows (or columns).<br>
+ * each block starts with its minimum size plus the empty space of the axis, also when no {@link Component} uses it,
+ * and a {@link Component} needs its size plus the empty space of each of its blocks. so a {@link Component} always
+ * gets at least its minimum size, as long as its blocks can grow that much.<br>
+ * when the {@link Container} is larger than its minimum size, the free space is distributed evenly between the
+ * blocks, which can still grow. a block never grows beyond its maximum size, the rest of its share is distributed
+ * between the other blocks
+ * <p>
+ * the constraints and the solved block sizes are stored separately for each {@link Container}, so a single
+ * {@link PatGridLayout} can be used by many {@link Container Containers} (for example the rows of a list). the sizes
+ * of a {@link Container} are discarded when one of its {@link Component Components} is added or removed. when the
+ * {@link Container} is {@link #invalidateLayout(Container) invalidated} they are only solved again, when the sizes of
+ * its {@link Component Components} changed. they stay valid without being verified when a {@link Container} is only
+ * invalidated, because a {@link PatGridLayout} changed its size, so nested {@link Container Containers} are solved at
+ * most once per validation (see {@link #solveCount(Container)}). when the blocks (or the empty space) of one axis are
+ * modified only the sizes of that axis are discarded, because the axes are solved independently.<br>
+ * when a {@link Container} has the same constraints and {@link Component} sizes as a recently solved
+ * {@link Container}, the solved block sizes are shared instead of being solved again.<br>
+ * note that modifying a {@link CompInfo} or {@link BlockInfo} instance after it was passed to the
+ * {@link PatGridLayout} requires the {@link Container} to be {@link Container#invalidate() invalidated}
+ * <p>
+ * in the {@link #virtualized(boolean) virtualized} mode only the {@link Component Components} of a {@link Container},
+ * which is the view of a {@link JViewport}, near the visible region are measured and placed, the sizes of the other
+ * {@link Component Components} are estimated
  * 
  * @author Patrick Hechler
  * 
@@ -100,13 +146,30 @@ public class PatGridLayout implements LayoutManager2 {
 	
 	static final int MAX_BLOCK_SIZE = Integer.MAX_VALUE >>> 7;
 	
+	private static final int SOLVED_STATES = 16;
+	
+	// the maximum number of times the visible region is measured again, because the estimated positions changed
+	private static final int MEASURE_ROUNDS = 4;
+	
+	/**
+	 * the default {@link #overscan() overscan} margin in pixels
+	 */
+	public static final int DEFAULT_OVERSCAN = 100;
+	
 	/**
 	 * an empty array with {@link BlockInfo} as component type<br>
 	 * used to avoid creating too many arrays of length zero
 	 */
 	public static final BlockInfo[] EMPTY_BLOCK_INFOS = new BlockInfo[0];
 	
-	private final Map<Component,CompInfo> comps = new HashMap<>();
+	private final Map<Container,ContainerState> states  = new WeakHashMap<>();
+	// the components which were added before they had a parent
+	private final CompStore                     pending = new CompStore();
+	// the recently completely solved Containers, their sizes can be shared with other Containers
+	// the states are referenced weakly, so they are released together with their Container
+	private final WeakReference<?>[]            solved  = new WeakReference<?>[SOLVED_STATES];
+	private int                                 solvedNext;
+	private long                                solveCount;
 	
 	private int         xempty;
 	private int         yempty;
@@ -114,6 +177,19 @@ public class PatGridLayout implements LayoutManager2 {
 	private BlockInfo[] yblocks;
 	private BlockInfo[] xafterblocks;
 	private BlockInfo[] yafterblocks;
+	// the resolved block sizes, built when needed
+	private BlockSize.Table xtable;
+	private BlockSize.Table ytable;
+	
+	// the parsed String constraints
+	private ConstraintCache constraintCache = new ConstraintCache();
+	
+	// notified about the modified region after a Container was laid out
+	private BiConsumer<? super Container,? super Rectangle> dirtyRegionListener;
+	
+	// only measure and place the components near the visible region of a JViewport
+	private boolean virtualized;
+	private int     overscan = DEFAULT_OVERSCAN;
 	
 	/**
 	 * creates a new {@link PatGridLayout} with no {@link #xBlocks()}, no {@link #yBlocks()} and
@@ -143,8 +219,8 @@ public class PatGridLayout implements LayoutManager2 {
 	 */
 	public PatGridLayout(int xEmpty, int yEmpty) {
 		this();
-		xEmpty(xEmpty);
-		yEmpty(yEmpty);
+		this.xempty = checkEmpty(xEmpty, "xEmpty");
+		this.yempty = checkEmpty(yEmpty, "yEmpty");
 	}
 	
 	/**
@@ -189,19 +265,13 @@ public class PatGridLayout implements LayoutManager2 {
 	 */
 	public PatGridLayout(int xEmpty, int yEmpty, BlockInfo[] xBlocks, BlockInfo[] xAfterRepeatBlocks,
 		BlockInfo[] yBlocks, BlockInfo[] yAfterRepeatBlocks) {
-		if ( this.getClass() != PatGridLayout.class ) {
-			// its a valid state, but can't be used for anything
-			xBlocks = EMPTY_BLOCK_INFOS;
-			yBlocks = EMPTY_BLOCK_INFOS;
-			xAfterRepeatBlocks = EMPTY_BLOCK_INFOS;
-			yAfterRepeatBlocks = EMPTY_BLOCK_INFOS;
-		}
-		xEmpty(xEmpty);
-		yEmpty(yEmpty);
-		xBlocks(xBlocks);
-		yBlocks(yBlocks);
-		xAfterRepeatBlocks(xAfterRepeatBlocks);
-		yAfterRepeatBlocks(yAfterRepeatBlocks);
+		// the setters may be overridden, so only their checks are used before the instance is initialized
+		this.xempty = checkEmpty(xEmpty, "xEmpty");
+		this.yempty = checkEmpty(yEmpty, "yEmpty");
+		this.xblocks = checkBlocks(xBlocks, "xBlocks");
+		this.yblocks = checkBlocks(yBlocks, "yBlocks");
+		this.xafterblocks = checkBlocks(xAfterRepeatBlocks, "xAfterRepeatBlocks");
+		this.yafterblocks = checkBlocks(yAfterRepeatBlocks, "yAfterRepeatBlocks");
 	}
 	
 	/**
@@ -263,20 +333,34 @@ public class PatGridLayout implements LayoutManager2 {
 			parseRepBlocks(yBlocks));
 	}
 	
+	private static int checkEmpty(int empty, String name) {
+		if ( empty < 0 ) {
+			throw new IllegalArgumentException(name + " < 0: " + empty);
+		}
+		return empty;
+	}
+	
+	private static BlockInfo[] checkBlocks(BlockInfo[] blocks, String name) {
+		BlockInfo[] clone = blocks.clone();
+		for (BlockInfo i : clone) {
+			if ( i == null ) {
+				throw new NullPointerException("null entry in " + name);
+			}
+		}
+		return clone;
+	}
+	
 	private static BlockInfo[] parseRepBlocks(String blocks) {
 		int index = blocks.indexOf(':');
-		if ( index == -1 || index == blocks.length() - 1 ) {
+		if ( index == -1 ) {
 			return EMPTY_BLOCK_INFOS;
 		}
-		return BlockInfo.parseArr(blocks.substring(index + 1));
+		return BlockInfo.parseArr(blocks, index + 1, blocks.length());
 	}
 	
 	private static BlockInfo[] parseBlocks(String blocks) {
 		int index = blocks.indexOf(':');
-		if ( index == 0 ) {
-			return EMPTY_BLOCK_INFOS;
-		}
-		return BlockInfo.parseArr(index == -1 ? blocks : blocks.substring(0, index));
+		return BlockInfo.parseArr(blocks, 0, index == -1 ? blocks.length() : index);
 	}
 	
 	/**
@@ -302,10 +386,8 @@ public class PatGridLayout implements LayoutManager2 {
 	 * @see #yEmpty(int)
 	 */
 	public void xEmpty(int xEmpty) throws IllegalArgumentException {
-		if ( xEmpty < 0 ) {
-			throw new IllegalArgumentException("yEmpty < 0: " + xEmpty);
-		}
-		this.xempty = xEmpty;
+		this.xempty = checkEmpty(xEmpty, "xEmpty");
+		invalidateX();
 	}
 	
 	/**
@@ -331,10 +413,8 @@ public class PatGridLayout implements LayoutManager2 {
 	 * @see #xEmpty(int)
 	 */
 	public void yEmpty(int yEmpty) {
-		if ( yEmpty < 0 ) {
-			throw new IllegalArgumentException("yEmpty < 0: " + yEmpty);
-		}
-		this.yempty = yEmpty;
+		this.yempty = checkEmpty(yEmpty, "yEmpty");
+		invalidateY();
 	}
 	
 	/**
@@ -365,13 +445,8 @@ public class PatGridLayout implements LayoutManager2 {
 	 * @see #xAfterRepeatBlocks(BlockInfo[])
 	 */
 	public void xBlocks(BlockInfo[] xBlocks) throws NullPointerException {
-		BlockInfo[] clone = xBlocks.clone();
-		for (BlockInfo i : clone) {
-			if ( i == null ) {
-				throw new NullPointerException("null entry in xBlocks");
-			}
-		}
-		this.xblocks = clone;
+		this.xblocks = checkBlocks(xBlocks, "xBlocks");
+		invalidateX();
 	}
 	
 	/**
@@ -402,13 +477,8 @@ public class PatGridLayout implements LayoutManager2 {
 	 * @see #yAfterRepeatBlocks(BlockInfo[])
 	 */
 	public void yBlocks(BlockInfo[] yBlocks) {
-		BlockInfo[] clone = yBlocks.clone();
-		for (BlockInfo i : clone) {
-			if ( i == null ) {
-				throw new NullPointerException("null entry in yBlocks");
-			}
-		}
-		this.yblocks = clone;
+		this.yblocks = checkBlocks(yBlocks, "yBlocks");
+		invalidateY();
 	}
 	
 	/**
@@ -437,13 +507,8 @@ public class PatGridLayout implements LayoutManager2 {
 	 * @see #yAfterRepeatBlocks(BlockInfo[])
 	 */
 	public void xAfterRepeatBlocks(BlockInfo[] xAfterBlocks) {
-		BlockInfo[] clone = xAfterBlocks.clone();
-		for (BlockInfo i : clone) {
-			if ( i == null ) {
-				throw new NullPointerException("null entry in xAfterRepeatBlocks");
-			}
-		}
-		this.xafterblocks = clone;
+		this.xafterblocks = checkBlocks(xAfterBlocks, "xAfterRepeatBlocks");
+		invalidateX();
 	}
 	
 	/**
@@ -473,38 +538,176 @@ public class PatGridLayout implements LayoutManager2 {
 	 * @see #xAfterRepeatBlocks(BlockInfo[])
 	 */
 	public void yAfterRepeatBlocks(BlockInfo[] yAfterBlocks) {
-		BlockInfo[] clone = yAfterBlocks.clone();
-		for (BlockInfo i : clone) {
-			if ( i == null ) {
-				throw new NullPointerException("null entry in yAfterRepeatBlocks");
-			}
+		this.yafterblocks = checkBlocks(yAfterBlocks, "yAfterRepeatBlocks");
+		invalidateY();
+	}
+	
+	/**
+	 * returns the listener, which is notified about the region of a {@link Container} which needs to be repainted
+	 * after it was laid out
+	 * 
+	 * @return the listener or {@code null}
+	 * 
+	 * @see #dirtyRegionListener(BiConsumer)
+	 */
+	public BiConsumer<? super Container,? super Rectangle> dirtyRegionListener() {
+		return this.dirtyRegionListener;
+	}
+	
+	/**
+	 * sets the listener, which is notified about the region of a {@link Container} which needs to be repainted after
+	 * it was laid out
+	 * <p>
+	 * the bounds of a {@link Component} are only set when they changed. after a {@link Container} was laid out, the
+	 * listener receives the union of the old and new bounds of all moved or resized {@link Component Components} (in
+	 * the coordinates of the {@link Container}). when no {@link Component} was modified the listener is not invoked.
+	 * <br>
+	 * for example {@code (c, r) -> c.repaint(r.x, r.y, r.width, r.height)} only repaints the modified region
+	 * 
+	 * @param listener the listener or {@code null} to not report the modified regions
+	 */
+	public void dirtyRegionListener(BiConsumer<? super Container,? super Rectangle> listener) {
+		this.dirtyRegionListener = listener;
+	}
+	
+	/**
+	 * returns the cache of the parsed {@link String} constraints of this layout
+	 * 
+	 * @return the cache of the parsed {@link String} constraints
+	 * 
+	 * @see #constraintCache(ConstraintCache)
+	 */
+	public ConstraintCache constraintCache() {
+		return this.constraintCache;
+	}
+	
+	/**
+	 * sets the cache of the parsed {@link String} constraints of this layout
+	 * <p>
+	 * each {@link PatGridLayout} starts with its own {@link ConstraintCache}, layouts which use the same constraints can
+	 * share a cache. the {@link Component Components}, which were already added, are not affected
+	 * 
+	 * @param cache the cache
+	 * 
+	 * @throws NullPointerException if {@code cache} is {@code null}
+	 */
+	public void constraintCache(ConstraintCache cache) throws NullPointerException {
+		if ( cache == null ) throw new NullPointerException("cache is null");
+		this.constraintCache = cache;
+	}
+	
+	/**
+	 * returns {@code true} if the virtualized mode is enabled
+	 * 
+	 * @return {@code true} if the virtualized mode is enabled
+	 * 
+	 * @see #virtualized(boolean)
+	 */
+	public boolean virtualized() {
+		return this.virtualized;
+	}
+	
+	/**
+	 * enables or disables the virtualized mode
+	 * <p>
+	 * in the virtualized mode a {@link Container}, which is the {@link JViewport#getView() view} of a
+	 * {@link JViewport}, only queries the sizes of and sets the bounds of the {@link Component Components}, which
+	 * intersect the visible region extended by the {@link #overscan() overscan} margin.<br>
+	 * the positions of all rows are still computed, the sizes of the {@link Component Components} which were never
+	 * measured are estimated by the average sizes of the measured {@link Component Components} and limited by the
+	 * {@link #yBlocks() yBlocks} and {@link #yAfterRepeatBlocks() yAfterRepeatBlocks}, so rows with a fixed size are
+	 * always exact.<br>
+	 * the measured sizes are kept until the {@link Component Components} of the {@link Container} change, the visible
+	 * {@link Component Components} are measured again on each layout. when the viewport is scrolled only the
+	 * {@link Component Components} which enter the visible region are measured and placed, the axes are only solved
+	 * again when their sizes differ from the estimated sizes and when this changes the preferred size of the
+	 * {@link Container} the {@link JViewport} is {@link JViewport#revalidate() revalidated}.
+	 * <p>
+	 * {@link Container Containers} which are not the view of a {@link JViewport} and {@link #snapshot(Container)
+	 * snapshots} are not affected by this mode
+	 * 
+	 * @param virtualized {@code true} to enable the virtualized mode
+	 */
+	public void virtualized(boolean virtualized) {
+		this.virtualized = virtualized;
+		for (ContainerState cache : this.states.values()) {
+			cache.known = null;
+			cache.showing = null;
+			cache.invalidate();
+		}
+	}
+	
+	/**
+	 * returns the margin in pixels above and below the visible region, in which the {@link Component Components} are
+	 * measured and placed in the {@link #virtualized(boolean) virtualized} mode
+	 * 
+	 * @return the overscan margin
+	 */
+	public int overscan() {
+		return this.overscan;
+	}
+	
+	/**
+	 * sets the margin in pixels above and below the visible region, in which the {@link Component Components} are
+	 * measured and placed in the {@link #virtualized(boolean) virtualized} mode
+	 * <p>
+	 * the margin is used on the next layout, a larger margin avoids that newly visible {@link Component Components}
+	 * have no bounds yet while the viewport is scrolled
+	 * 
+	 * @param overscan the overscan margin
+	 * 
+	 * @throws IllegalArgumentException if {@code overscan} is negative
+	 */
+	public void overscan(int overscan) throws IllegalArgumentException {
+		if ( overscan < 0 ) {
+			throw new IllegalArgumentException("overscan < 0: " + overscan);
 		}
-		this.yafterblocks = clone;
+		this.overscan = overscan;
 	}
 	
 	/** {@inheritDoc} */
 	@Override
 	public void addLayoutComponent(String name, Component comp) {
-		this.comps.put(comp, CompInfo.parse(name));
+		add(comp, this.constraintCache.compInfo(name));
 	}
 	
 	/** {@inheritDoc} */
 	@Override
 	public void addLayoutComponent(Component comp, Object constraints) {
 		if ( constraints instanceof String s ) {
-			this.comps.put(comp, CompInfo.parse(s));
+			add(comp, this.constraintCache.compInfo(s));
 		} else if ( constraints instanceof CompInfo c ) {
-			this.comps.put(comp, c);
+			add(comp, c);
 		} else {
 			throw new IllegalArgumentException("illegal constrains: "
 				+ ( constraints == null ? "null" : constraints.getClass() + " : " + constraints ));
 		}
 	}
 	
+	private void add(Component comp, CompInfo inf) {
+		Container parent = comp.getParent();
+		if ( parent == null ) {
+			// the state is chosen when the component is used
+			this.pending.put(comp, inf);
+			return;
+		}
+		this.pending.remove(comp);
+		ContainerState state = state(parent);
+		state.comps.put(comp, inf);
+		state.invalidate();
+	}
+	
+	private CompInfo info(Component comp) {
+		Container parent = comp.getParent();
+		ContainerState state = parent == null ? null : this.states.get(parent);
+		CompInfo inf = state == null ? null : state.comps.get(comp);
+		return inf != null ? inf : this.pending.get(comp);
+	}
+	
 	/** {@inheritDoc} */
 	@Override
 	public float getLayoutAlignmentX(Container target) {
-		CompInfo inf = this.comps.get(target);
+		CompInfo inf = info(target);
 		FillMode mode = inf.widthMode;
 		if ( mode == FillMode.FILL_COMPLETLY ) {
 			return 0f;
@@ -518,7 +721,7 @@ public class PatGridLayout implements LayoutManager2 {
 	/** {@inheritDoc} */
 	@Override
 	public float getLayoutAlignmentY(Container target) {
-		CompInfo inf = this.comps.get(target);
+		CompInfo inf = info(target);
 		FillMode mode = inf.heightMode;
 		if ( mode == FillMode.FILL_COMPLETLY ) {
 			return 0f;
@@ -532,496 +735,1690 @@ public class PatGridLayout implements LayoutManager2 {
 	/** {@inheritDoc} */
 	@Override
 	public void removeLayoutComponent(Component comp) {
-		this.comps.remove(comp);
+		this.pending.remove(comp);
+		Container parent = comp.getParent();
+		ContainerState state = parent == null ? null : this.states.get(parent);
+		if ( state != null ) {
+			state.comps.remove(comp);
+			state.invalidate();
+		}
 	}
 	
 	/** {@inheritDoc} */
 	@Override
 	public Dimension minimumLayoutSize(Container parent) {
-		BlockSize[][] sizes = layoutSizes(parent, LAYOUT_SIZES_MINIMUM);
-		return calcSize(sizes);
+		ContainerState cache = state(parent);
+		if ( cache.stale ) {
+			solve(parent, cache);
+		}
+		if ( cache.minimum == null ) {
+			cache.minimum = calcSize(solve(parent, cache), MINIMUM);
+		}
+		return new Dimension(cache.minimum);
 	}
 	
 	/** {@inheritDoc} */
 	@Override
 	public Dimension preferredLayoutSize(Container parent) {
-		BlockSize[][] sizes = layoutSizes(parent, LAYOUT_SIZES_PREFERRED);
-		return calcSize(sizes);
+		ContainerState cache = state(parent);
+		if ( cache.stale ) {
+			solve(parent, cache);
+		}
+		if ( cache.preferred == null ) {
+			cache.preferred = calcSize(solve(parent, cache), PREFERRED);
+		}
+		return new Dimension(cache.preferred);
 	}
 	
 	/** {@inheritDoc} */
 	@Override
 	public Dimension maximumLayoutSize(Container target) {
-		BlockSize[][] sizes = layoutSizes(target, LAYOUT_SIZES_MAXIMUM);
-		return calcSize(sizes);
+		ContainerState cache = state(target);
+		if ( cache.stale ) {
+			solve(target, cache);
+		}
+		if ( cache.maximum == null ) {
+			cache.maximum = calcSize(solve(target, cache), MAXIMUM);
+		}
+		return new Dimension(cache.maximum);
 	}
 	
-	private static final int LAYOUT_SIZES_MINIMUM   = 0x1;
-	private static final int LAYOUT_SIZES_PREFERRED = 0x2;
-	private static final int LAYOUT_SIZES_MAXIMUM   = 0x4;
+	/**
+	 * returns the number of times the sizes of the given {@link Container} were solved by this layout
+	 * <p>
+	 * the sizes are solved when they are needed for the first time after the layout of the {@link Container} was
+	 * {@link #invalidateLayout(Container) invalidated} and the sizes of its {@link Component Components} changed. a
+	 * solve, which reuses the sizes of another {@link Container}, is also counted.<br>
+	 * this can be used to verify that a {@link Container} is solved only once when it is validated
+	 * 
+	 * @param parent the {@link Container}
+	 * 
+	 * @return the number of times the sizes of the {@link Container} were solved
+	 * 
+	 * @see #solveCount()
+	 */
+	public int solveCount(Container parent) {
+		ContainerState state = this.states.get(parent);
+		return state == null ? 0 : state.solveCount;
+	}
 	
-	private BlockSize[][] layoutSizes(Container parent, int flags) {
-		int xBlockCount = -1;
-		int yBlockCount = -1;
-		for (int i = parent.getComponentCount(); --i >= 0;) {
-			CompInfo inf = this.comps.get(parent.getComponent(i));
-			if ( inf == null ) {
-				throw new IllegalStateException("I have no info about the component " + i + " : "
-					+ parent.getComponent(i) + " I know: " + this.comps);
+	/**
+	 * returns the number of times the sizes of a {@link Container} were solved by this layout
+	 * 
+	 * @return the number of times the sizes of a {@link Container} were solved by this layout
+	 * 
+	 * @see #solveCount(Container)
+	 */
+	public long solveCount() {
+		return this.solveCount;
+	}
+	
+	/**
+	 * returns the solved block sizes of one axis of the given {@link Container}
+	 * 
+	 * @param parent the {@link Container}
+	 * @param x      {@code true} for the x axis and {@code false} for the y axis
+	 * 
+	 * @return the block sizes or {@code null} if the axis was not solved
+	 */
+	BlockSize sizes(Container parent, boolean x) {
+		ContainerState state = this.states.get(parent);
+		if ( state == null ) {
+			return null;
+		}
+		return x ? state.x : state.y;
+	}
+	
+	/**
+	 * returns the store of the components of the given {@link Container}
+	 * 
+	 * @param parent the {@link Container}
+	 * 
+	 * @return the store or {@code null} if this layout has no state for the {@link Container}
+	 */
+	CompStore store(Container parent) {
+		ContainerState state = this.states.get(parent);
+		return state == null ? null : state.comps;
+	}
+	
+	/**
+	 * returns the number of {@link Container Containers} for which this layout stores a state
+	 * 
+	 * @return the number of {@link Container Containers} for which this layout stores a state
+	 */
+	int stateCount() {
+		return this.states.size();
+	}
+	
+	private ContainerState state(Container parent) {
+		return this.states.computeIfAbsent(parent, p -> new ContainerState());
+	}
+	
+	/**
+	 * stores the constraints and the solved sizes of a single {@link Container}
+	 * <p>
+	 * a {@code null} value means, that the value has not yet been calculated (or was discarded)
+	 * <p>
+	 * the sizes of the x and y blocks contain the minimum, preferred and maximum sizes of the blocks, they are
+	 * calculated once and then used for the layout sizes and by {@link PatGridLayout#layoutContainer(Container)}.<br>
+	 * the minimum sizes are the sizes before the free space is distributed, so when only the size of the
+	 * {@link Container} changes they can be reused.<br>
+	 * the axes are solved independently, so when only the x blocks are modified the y blocks stay valid (and the
+	 * other way around).<br>
+	 * the minimum, preferred and maximum sizes of the components are stored in the {@link SizeHints}, so the
+	 * {@link FillMode FillModes} do not need to query them again
+	 */
+	private static final class ContainerState {
+		
+		// the constraints of the components of the Container
+		private final CompStore comps = new CompStore();
+		// the entry of this state in the recently solved states
+		private final WeakReference<ContainerState> recent = new WeakReference<>(this);
+		private Dimension minimum;
+		private Dimension preferred;
+		private Dimension maximum;
+		private boolean   xValid;
+		private boolean   yValid;
+		private BlockSize x;
+		private BlockSize y;
+		// the sizes queried from the components when the axes were solved
+		private final SizeHints hints = new SizeHints();
+		// the slots of the components in the CompStore in the order of the Container
+		private int[] slots;
+		// the blocks of the components when the axes were solved
+		private int[] xs;
+		private int[] ys;
+		private int[] ws;
+		private int[] hs;
+		private int   spanCount;
+		// the hashes of the blocks and hints of each axis, used to find a recently solved axis with the same input
+		private int   xHash;
+		private int   yHash;
+		// incremented when the sizes are discarded, a LayoutPlan is verified before it is applied when this changed
+		private int   modCount;
+		private int   solveCount;
+		// the size hints measured in the virtualized mode, the other components use estimated sizes
+		private boolean[] known;
+		private int[]     measured;
+		private int       knownCount;
+		// the buffers of the measured and estimated hints, reused by each solve of the virtualized mode
+		private int[]     virtual;
+		private long[]    sums;
+		// the hints were computed by the virtualized mode, so the solved sizes can not be used by a snapshot
+		private boolean   estimated;
+		// the indices of the components sorted by their first row and the largest end row of each prefix
+		private int[]     rows;
+		private int[]     rowEnds;
+		// the region in which the components were placed in the virtualized mode and the sizes used to place them
+		private int       placedTop;
+		private int       placedBottom;
+		private int       placedWidth;
+		private int       placedHeight;
+		private BlockSize placedX;
+		private BlockSize placedY;
+		// the indices of the components whose bounds were set in the virtualized mode, null when they are not known
+		private int[]     shown;
+		private boolean[] showing;
+		private int       shownCount;
+		// the listener installed on the JViewport of the virtualized mode
+		private ViewportListener viewportListener;
+		// the layout was invalidated, the sizes are verified before they are used again
+		private boolean   stale;
+		// advanced when a Container of the validation, which this Container is the outermost one of, is invalidated
+		// and not resized by the layout of its parent
+		private final AtomicLong epochs = new AtomicLong();
+		// the epoch (and its counter) in which the sizes were last known to be valid, a stale state of the current
+		// epoch was only invalidated because the layout of its parent changed its size
+		private AtomicLong scope;
+		private long       epoch;
+		// true while the bounds of the components are set
+		private boolean   placing;
+		
+		private void clearLayoutSizes() {
+			this.modCount++;
+			this.minimum = null;
+			this.preferred = null;
+			this.maximum = null;
+		}
+		
+		private void invalidate() {
+			this.xValid = false;
+			this.yValid = false;
+			this.rows = null;
+			clearLayoutSizes();
+		}
+		
+		// true if the sizes were only invalidated by the layout of a parent in the current epoch of the validation
+		private boolean current(AtomicLong current) {
+			return this.scope == current && this.epoch == current.get();
+		}
+		
+	}
+	
+	private static final int MINIMUM    = 0;
+	private static final int PREFERRED  = 1;
+	private static final int MAXIMUM    = 2;
+	private static final int SIZE_KINDS = 3;
+	
+	/**
+	 * solves the axes of the cache, which are not valid
+	 * <p>
+	 * the components are traversed only once, the axes do not depend on each other: the x blocks only depend on
+	 * the x coordinates and the widths of the components and the y blocks only on the y coordinates and heights
+	 * <p>
+	 * the {@link #updateSlots(Container, ContainerState) slots} of the components are verified first, when the order of
+	 * the components changed both axes are solved again. a valid cache is not verified: adding or removing a component
+	 * invalidates its cache and any other modification of the components {@link #invalidateLayout(Container)
+	 * invalidates} the layout
+	 * <p>
+	 * when only one axis is invalid, only its blocks were modified. the stored blocks and size hints of the components
+	 * are still valid, so the components are not queried again and only the columns of that axis are used
+	 * <p>
+	 * when the blocks and the sizes of the components on an axis are the same as the ones of a recently solved
+	 * {@link Container}, its block sizes of that axis are {@link BlockSize#share() shared}
+	 * 
+	 * @param parent the {@link Container}
+	 * @param cache  the cache of the {@link Container}
+	 * 
+	 * @return the cache
+	 */
+	private ContainerState solve(Container parent, ContainerState cache) {
+		if ( ( cache.stale || !cache.xValid || !cache.yValid ) && !updateSlots(parent, cache) ) {
+			// the size hints and the shown components are stored in the order of the components
+			cache.known = null;
+			cache.showing = null;
+			cache.invalidate();
+		}
+		if ( cache.stale ) {
+			cache.stale = false;
+			if ( !cache.current(scope(parent)) && !sameSizes(parent, cache) ) {
+				cache.invalidate();
+			}
+		}
+		final boolean solveX = !cache.xValid;
+		final boolean solveY = !cache.yValid;
+		if ( !solveX && !solveY ) {
+			return cache;
+		}
+		cache.xValid = true;
+		cache.yValid = true;
+		cache.solveCount++;
+		this.solveCount++;
+		// the stored blocks and hints may no longer match the sizes of the other axis
+		forget(cache);
+		final int compCount = parent.getComponentCount();
+		if ( compCount == 0 ) {
+			cache.x = null;
+			cache.y = null;
+			cache.estimated = false;
+			return cache;
+		}
+		int[] xs;
+		int[] ys;
+		int[] ws;
+		int[] hs;
+		int spanCount;
+		int[] hints;
+		if ( solveX && solveY ) {
+			xs = new int[compCount];
+			ys = new int[compCount];
+			ws = new int[compCount];
+			hs = new int[compCount];
+			spanCount = blocks(cache, xs, ys, ws, hs);
+			if ( this.virtualized && viewport(parent) != null ) {
+				hints = virtualHints(parent, cache, compCount);
+				cache.estimated = true;
+			} else {
+				hints = hints(parent, compCount);
+				cache.estimated = false;
 			}
-			int x = inf.x + inf.w;
-			if ( x > xBlockCount ) {
-				xBlockCount = x;
+		} else {
+			// only the blocks of one axis were modified, the components and their sizes are unchanged
+			xs = cache.xs;
+			ys = cache.ys;
+			ws = cache.ws;
+			hs = cache.hs;
+			spanCount = cache.spanCount;
+			hints = cache.hints.values();
+		}
+		BlockSize xsizes = null;
+		BlockSize ysizes = null;
+		if ( solveX ) {
+			int hash = axisHash(hints, 0, xs, ws);
+			ContainerState last = solved(true, hash, hints, xs, ws);
+			if ( last != null ) {
+				cache.x = last.x.share();
+			} else {
+				xsizes = new BlockSize(xtable(), SIZE_KINDS, xs, ws, compCount);
 			}
-			int y = inf.y + inf.h;
-			if ( y > yBlockCount ) {
-				yBlockCount = y;
+			cache.xHash = hash;
+		}
+		if ( solveY ) {
+			int hash = axisHash(hints, 1, ys, hs);
+			ContainerState last = solved(false, hash, hints, ys, hs);
+			if ( last != null ) {
+				cache.y = last.y.share();
+			} else {
+				ysizes = new BlockSize(ytable(), SIZE_KINDS, ys, hs, compCount);
 			}
+			cache.yHash = hash;
+		}
+		if ( xsizes != null || ysizes != null ) {
+			fill(xsizes, ysizes, this.xempty, this.yempty, hints, xs, ys, ws, hs, spanCount);
 		}
-		if ( xBlockCount == -1 ) {
-			return null;// NOSONAR
+		cache.hints.values(hints);
+		cache.xs = xs;
+		cache.ys = ys;
+		cache.ws = ws;
+		cache.hs = hs;
+		cache.spanCount = spanCount;
+		if ( xsizes != null ) {
+			cache.x = xsizes;
 		}
-		BlockSize[][] sizes = new BlockSize[yBlockCount][xBlockCount];
-		int bitCnt = Integer.bitCount(flags);
-		for (BlockSize[] arr : sizes) {
-			for (int i = 0; i < arr.length; i++) {
-				arr[i] = BlockSize.create(bitCnt);
+		if ( ysizes != null ) {
+			cache.y = ysizes;
+		}
+		this.solved[this.solvedNext] = cache.recent;
+		this.solvedNext = ( this.solvedNext + 1 ) % SOLVED_STATES;
+		if ( doLogging() ) {
+			log("sizes:", //
+				"  y: " + cache.y + solved(solveY, ysizes), //
+				"  x: " + cache.x + solved(solveX, xsizes));
+		}
+		return cache;
+	}
+	
+	/**
+	 * reads the blocks of the components of the state in the order of the {@link Container}
+	 * 
+	 * @param state the state with valid {@link ContainerState#slots slots}
+	 * @param xs    the array for the x coordinates
+	 * @param ys    the array for the y coordinates
+	 * @param ws    the array for the widths
+	 * @param hs    the array for the heights
+	 * 
+	 * @return the number of components which use more than one block
+	 */
+	private static int blocks(ContainerState state, int[] xs, int[] ys, int[] ws, int[] hs) {
+		final CompStore store = state.comps;
+		final int[] slots = state.slots;
+		int spanCount = 0;
+		for (int i = xs.length; --i >= 0;) {
+			int slot = slots[i];
+			int w = store.w(slot);
+			int h = store.h(slot);
+			xs[i] = store.x(slot);
+			ys[i] = store.y(slot);
+			ws[i] = w;
+			hs[i] = h;
+			if ( w != 1 || h != 1 ) {
+				spanCount++;
 			}
 		}
+		return spanCount;
+	}
+	
+	/**
+	 * queries the minimum, preferred and maximum sizes of the components
+	 * 
+	 * @param parent    the {@link Container}
+	 * @param compCount the number of components
+	 * 
+	 * @return the {@link SizeHints#values(int[]) values} of the {@link SizeHints}
+	 */
+	private static int[] hints(Container parent, int compCount) {
+		int[] hints = new int[compCount * SizeHints.VALUES];
+		for (int i = compCount; --i >= 0;) {
+			hints(parent.getComponent(i), hints, i * SizeHints.VALUES);
+		}
+		return hints;
+	}
+	
+	/**
+	 * queries the minimum, preferred and maximum sizes of the component
+	 * 
+	 * @param comp  the {@link Component}
+	 * @param hints the {@link SizeHints#values(int[]) values} of the {@link SizeHints}
+	 * @param hi    the index of the first value of the component
+	 * 
+	 * @return {@code true} if the values were modified
+	 */
+	private static boolean hints(Component comp, int[] hints, int hi) {
+		Dimension min = comp.getMinimumSize();
+		Dimension pref = comp.getPreferredSize();
+		Dimension max = comp.getMaximumSize();
+		boolean modified = hints[hi] != min.width || hints[hi + 1] != min.height || hints[hi + 2] != pref.width
+			|| hints[hi + 3] != pref.height || hints[hi + 4] != max.width || hints[hi + 5] != max.height;
+		hints[hi] = min.width;
+		hints[hi + 1] = min.height;
+		hints[hi + 2] = pref.width;
+		hints[hi + 3] = pref.height;
+		hints[hi + 4] = max.width;
+		hints[hi + 5] = max.height;
+		return modified;
+	}
+	
+	/**
+	 * returns {@code true} if the components still have the sizes, which were used to solve the axes
+	 * <p>
+	 * in the virtualized mode only some components were measured, so {@code false} is returned to solve the axes again
+	 * 
+	 * @param parent the {@link Container} with the same components as when the axes were solved
+	 * @param cache  the cache of the {@link Container}
+	 * 
+	 * @return {@code true} if the solved axes are still valid
+	 */
+	private static boolean sameSizes(Container parent, ContainerState cache) {
+		if ( !cache.xValid || !cache.yValid || cache.x == null ) {
+			// the axes are solved anyway or there are no components
+			return true;
+		}
+		if ( cache.known != null ) {
+			return false;
+		}
+		int[] hints = cache.hints.values();
 		for (int i = parent.getComponentCount(); --i >= 0;) {
 			Component comp = parent.getComponent(i);
-			CompInfo inf = this.comps.get(comp);
-			if ( inf.h != 1 || inf.w != 1 ) {
+			int hi = i * SizeHints.VALUES;
+			Dimension min = comp.getMinimumSize();
+			Dimension pref = comp.getPreferredSize();
+			Dimension max = comp.getMaximumSize();
+			if ( hints[hi] != min.width || hints[hi + 1] != min.height || hints[hi + 2] != pref.width
+				|| hints[hi + 3] != pref.height || hints[hi + 4] != max.width || hints[hi + 5] != max.height ) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * builds the size hints for the virtualized mode
+	 * <p>
+	 * the measured components use their measured sizes, the other components use the average sizes of the measured
+	 * components. when no component was measured yet, the first component is measured
+	 * <p>
+	 * the hints are written to a buffer of the cache, which is only allocated again when the number of components
+	 * changed
+	 * 
+	 * @param parent    the {@link Container}
+	 * @param cache     the cache of the {@link Container}
+	 * @param compCount the number of components
+	 * 
+	 * @return the {@link SizeHints#values(int[]) values} of the {@link SizeHints}
+	 */
+	private static int[] virtualHints(Container parent, ContainerState cache, int compCount) {
+		if ( cache.known == null || cache.known.length != compCount ) {
+			cache.known = new boolean[compCount];
+			cache.measured = new int[compCount * SizeHints.VALUES];
+			cache.virtual = new int[compCount * SizeHints.VALUES];
+			cache.sums = new long[SizeHints.VALUES];
+			cache.knownCount = 0;
+		}
+		if ( cache.knownCount == 0 ) {
+			measure(parent, cache, 0);
+		}
+		boolean[] known = cache.known;
+		int[] measured = cache.measured;
+		int[] hints = cache.virtual;
+		long[] sums = cache.sums;
+		Arrays.fill(sums, 0L);
+		for (int i = compCount; --i >= 0;) {
+			if ( known[i] ) {
+				for (int v = 0, hi = i * SizeHints.VALUES; v < SizeHints.VALUES; v++) {
+					sums[v] += measured[hi + v];
+				}
+			}
+		}
+		for (int v = 0; v < SizeHints.VALUES; v++) {
+			sums[v] /= cache.knownCount;
+		}
+		for (int i = compCount; --i >= 0;) {
+			int hi = i * SizeHints.VALUES;
+			if ( known[i] ) {
+				System.arraycopy(measured, hi, hints, hi, SizeHints.VALUES);
+			} else {
+				for (int v = 0; v < SizeHints.VALUES; v++) {
+					hints[hi + v] = (int) sums[v];
+				}
+			}
+		}
+		return hints;
+	}
+	
+	/**
+	 * measures the component in the virtualized mode
+	 * 
+	 * @param parent the {@link Container}
+	 * @param cache  the cache of the {@link Container}
+	 * @param i      the index of the component
+	 */
+	private static void measure(Container parent, ContainerState cache, int i) {
+		hints(parent.getComponent(i), cache.measured, i * SizeHints.VALUES);
+		if ( !cache.known[i] ) {
+			cache.known[i] = true;
+			cache.knownCount++;
+		}
+	}
+	
+	/**
+	 * measures the component in the virtualized mode and returns {@code true} if the measured sizes differ from the
+	 * sizes with which the axes were solved
+	 * 
+	 * @param parent the {@link Container}
+	 * @param cache  the solved cache of the {@link Container}
+	 * @param i      the index of the component
+	 * 
+	 * @return {@code true} if the axes need to be solved again
+	 */
+	private static boolean remeasure(Container parent, ContainerState cache, int i) {
+		measure(parent, cache, i);
+		int hi = i * SizeHints.VALUES;
+		return !Arrays.equals(cache.measured, hi, hi + SizeHints.VALUES, cache.hints.values(), hi,
+			hi + SizeHints.VALUES);
+	}
+	
+	// the hints are stored as (min width, min height, pref width, ...), off is 0 for the x and 1 for the y axis
+	private static int axisHash(int[] hints, int off, int[] starts, int[] lengths) {
+		final int prime = 31;
+		int result = 1;
+		for (int hi = off; hi < hints.length; hi += 2) {
+			result = prime * result + hints[hi];
+		}
+		result = prime * result + Arrays.hashCode(starts);
+		result = prime * result + Arrays.hashCode(lengths);
+		return result;
+	}
+	
+	// a recently solved state with the same blocks and hints on the axis or null
+	private ContainerState solved(boolean x, int hash, int[] hints, int[] starts, int[] lengths) {
+		BlockSize.Table table = x ? xtable() : ytable();
+		for (WeakReference<?> ref : this.solved) {
+			ContainerState s = ref == null ? null : (ContainerState) ref.get();
+			if ( s == null || ( x ? s.xHash : s.yHash ) != hash ) {
 				continue;
 			}
-			BlockSize bs = sizes[inf.y][inf.x];
-			int bsi = 0;
-			if ( ( flags & LAYOUT_SIZES_MINIMUM ) != 0 ) {
-				Dimension dim = comp.getMinimumSize();
-				checkMinThrow(dim);
-				bs.max(bsi++, dim);
+			if ( ( x ? s.x : s.y ).table.same(table) && Arrays.equals(starts, x ? s.xs : s.ys)
+				&& Arrays.equals(lengths, x ? s.ws : s.hs) && sameHints(hints, s.hints.values(), x ? 0 : 1) ) {
+				return s;
 			}
-			if ( ( flags & LAYOUT_SIZES_PREFERRED ) != 0 ) {
-				Dimension dim = comp.getPreferredSize();
-				checkMinReplace(dim);
-				bs.max(bsi++, dim);
+		}
+		return null;
+	}
+	
+	private static boolean sameHints(int[] a, int[] b, int off) {
+		if ( a.length != b.length ) {
+			return false;
+		}
+		for (int hi = off; hi < a.length; hi += 2) {
+			if ( a[hi] != b[hi] ) {
+				return false;
 			}
-			if ( ( flags & LAYOUT_SIZES_MAXIMUM ) != 0 ) {
-				Dimension dim = comp.getMaximumSize();
-				checkMinReplace(dim);
-				bs.max(bsi, dim);
+		}
+		return true;
+	}
+	
+	private void forget(ContainerState state) {
+		WeakReference<?>[] s = this.solved;
+		for (int i = s.length; --i >= 0;) {
+			if ( s[i] == state.recent ) {
+				s[i] = null;
 			}
 		}
-		for (int ci = parent.getComponentCount(); --ci >= 0;) {
-			Component comp = parent.getComponent(ci);
-			CompInfo inf = this.comps.get(comp);
-			if ( inf.h == 1 && inf.w == 1 ) {
-				continue;
+	}
+	
+	private static String solved(boolean solve, BlockSize sizes) {
+		if ( !solve ) return " (unmodified)";
+		if ( sizes == null ) return " (shared)";
+		return "";
+	}
+	
+	/**
+	 * fills the given block sizes with the sizes of the components
+	 * 
+	 * @param xsizes    the x block sizes or {@code null} if the x axis is not solved
+	 * @param ysizes    the y block sizes or {@code null} if the y axis is not solved
+	 * @param xempty    the empty x space between the blocks
+	 * @param yempty    the empty y space between the blocks
+	 * @param hints     the {@link SizeHints#values(int[]) sizes} of the components
+	 * @param xs        the x coordinates of the components
+	 * @param ys        the y coordinates of the components
+	 * @param ws        the widths of the components
+	 * @param hs        the heights of the components
+	 * @param spanCount the number of components which use more than one block
+	 */
+	private static void fill(BlockSize xsizes, BlockSize ysizes, int xempty, int yempty, int[] hints, int[] xs,
+		int[] ys, int[] ws, int[] hs, int spanCount) {
+		// the spanning components are grown after all other components are known
+		// for each: the index and the minimum, preferred and maximum size
+		int[] xspans = new int[xsizes != null ? spanCount * 4 : 0];
+		int[] yspans = new int[ysizes != null ? spanCount * 4 : 0];
+		Dimension min = new Dimension();
+		Dimension pref = new Dimension();
+		Dimension max = new Dimension();
+		for (int i = xs.length, xsi = 0, ysi = 0; --i >= 0;) {
+			int hi = i * SizeHints.VALUES;
+			min.setSize(hints[hi], hints[hi + 1]);
+			pref.setSize(hints[hi + 2], hints[hi + 3]);
+			max.setSize(hints[hi + 4], hints[hi + 5]);
+			checkMinThrow(min, ws[i], hs[i], xempty, yempty);
+			checkMinReplace(pref, ws[i], hs[i], xempty, yempty);
+			checkMinReplace(max, ws[i], hs[i], xempty, yempty);
+			boolean span = ws[i] != 1 || hs[i] != 1;
+			if ( xsizes == null ) {// NOSONAR
+			} else if ( !span ) {
+				xsizes.max(MINIMUM, xs[i], min.width);
+				xsizes.max(PREFERRED, xs[i], pref.width);
+				xsizes.max(MAXIMUM, xs[i], max.width);
+			} else {
+				xspans[xsi++] = i;
+				xspans[xsi++] = min.width;
+				xspans[xsi++] = pref.width;
+				xspans[xsi++] = max.width;
 			}
-			int bsi = 0;
-			if ( ( flags & LAYOUT_SIZES_MINIMUM ) != 0 ) {
-				Dimension dim = comp.getMinimumSize();
-				checkMinThrow(dim, inf);
-				grow(sizes, inf, bsi++, dim, true);
+			if ( ysizes == null ) {// NOSONAR
+			} else if ( !span ) {
+				ysizes.max(MINIMUM, ys[i], min.height);
+				ysizes.max(PREFERRED, ys[i], pref.height);
+				ysizes.max(MAXIMUM, ys[i], max.height);
+			} else {
+				yspans[ysi++] = i;
+				yspans[ysi++] = min.height;
+				yspans[ysi++] = pref.height;
+				yspans[ysi++] = max.height;
 			}
-			if ( ( flags & LAYOUT_SIZES_PREFERRED ) != 0 ) {
-				Dimension dim = comp.getPreferredSize();
-				checkMinReplace(dim, inf);
-				grow(sizes, inf, bsi++, dim, true);
+		}
+		if ( xsizes != null ) {
+			growSpans(xsizes, xspans, xs, ws);
+		}
+		if ( ysizes != null ) {
+			growSpans(ysizes, yspans, ys, hs);
+		}
+	}
+	
+	/**
+	 * updates the array, which maps the index of a {@link Component} in the {@link Container} to its slot in the
+	 * {@link CompStore}
+	 * <p>
+	 * the array is kept in the cache, each entry is verified and only looked up again when it does not match. a
+ * {@link Component}, which was added before it had a parent, is moved to the state of the {@link Container} here.
+	 * 
+	 * @param parent the {@link Container}
+	 * @param cache  the cache of the {@link Container}
+	 * 
+	 * @return {@code true} if all entries were still valid
+	 */
+	private boolean updateSlots(Container parent, ContainerState cache) {
+		int count = parent.getComponentCount();
+		int[] slots = cache.slots;
+		boolean valid = slots != null && slots.length == count;
+		if ( !valid ) {
+			slots = new int[count];
+			cache.slots = slots;
+		}
+		CompStore store = cache.comps;
+		boolean adopted = false;
+		for (int i = 0; i < count; i++) {
+			Component comp = parent.getComponent(i);
+			if ( valid && store.component(slots[i]) == comp ) {
+				continue;
 			}
-			if ( ( flags & LAYOUT_SIZES_MAXIMUM ) != 0 ) {
-				Dimension dim = comp.getMaximumSize();
-				checkMinReplace(dim, inf);
-				grow(sizes, inf, bsi, dim, true);
+			int slot = store.slot(comp);
+			if ( slot < 0 ) {
+				// the component was added before it had a parent
+				CompInfo inf = this.pending.get(comp);
+				if ( inf == null ) {
+					throw new IllegalStateException(
+						"I have no info about the component " + i + " : " + comp + " I know: " + store);
+				}
+				this.pending.remove(comp);
+				store.put(comp, inf);
+				slot = store.slot(comp);
+				adopted = true;
 			}
+			slots[i] = slot;
+			valid = false;
+		}
+		if ( adopted ) {
+			// adding a component may move the slots of collected components
+			updateSlots(parent, cache);
 		}
-		return sizes;
+		return valid;
 	}
 	
-	private void checkMinReplace(Dimension dim, CompInfo inf) {
-		if ( dim.width <= Integer.MAX_VALUE - this.xempty ) dim.width += this.xempty * inf.w;
-		else dim.width = Integer.MAX_VALUE;
-		if ( dim.height <= Integer.MAX_VALUE - this.yempty ) dim.height += this.yempty * inf.h;
-		else dim.width = Integer.MAX_VALUE;
+	private BlockSize.Table xtable() {
+		BlockSize.Table t = this.xtable;
+		if ( t == null ) {
+			t = new BlockSize.Table(this.xblocks, this.xafterblocks, this.xempty, 'x');
+			this.xtable = t;
+		}
+		return t;
+	}
+	
+	private BlockSize.Table ytable() {
+		BlockSize.Table t = this.ytable;
+		if ( t == null ) {
+			t = new BlockSize.Table(this.yblocks, this.yafterblocks, this.yempty, 'y');
+			this.ytable = t;
+		}
+		return t;
+	}
+	
+	private static void growSpans(BlockSize sizes, int[] spans, int[] starts, int[] counts) {
+		for (int si = 0; si < spans.length;) {
+			int i = spans[si++];
+			for (int bsi = 0; bsi < SIZE_KINDS; bsi++) {
+				sizes.grow(bsi, starts[i], counts[i], spans[si++]);
+			}
+		}
 	}
 	
-	private void checkMinReplace(Dimension dim) {// same as checkMinReplace(dim, new CompInfo(0,0,1,1))
-		if ( dim.width <= Integer.MAX_VALUE - this.xempty ) dim.width += this.xempty;
+	private static void checkMinReplace(Dimension dim, int w, int h, int xempty, int yempty) {
+		if ( dim.width <= Integer.MAX_VALUE - xempty ) dim.width += xempty * w;
 		else dim.width = Integer.MAX_VALUE;
-		if ( dim.height <= Integer.MAX_VALUE - this.yempty ) dim.height += this.yempty;
+		if ( dim.height <= Integer.MAX_VALUE - yempty ) dim.height += yempty * h;
 		else dim.width = Integer.MAX_VALUE;
 	}
 	
-	private void checkMinThrow(Dimension dim, CompInfo inf) {
-		if ( dim.width <= MAX_BLOCK_SIZE - this.xempty ) dim.width += this.xempty * inf.w;
+	private static void checkMinThrow(Dimension dim, int w, int h, int xempty, int yempty) {
+		if ( dim.width <= MAX_BLOCK_SIZE - xempty ) dim.width += xempty * w;
 		else throw new IllegalStateException("minimum size too large");// NOSONAR
-		if ( dim.height <= MAX_BLOCK_SIZE - this.yempty ) dim.height += this.yempty * inf.h;
+		if ( dim.height <= MAX_BLOCK_SIZE - yempty ) dim.height += yempty * h;
 		else throw new IllegalStateException("minimum size too large");
 	}
 	
-	private void checkMinThrow(Dimension dim) { // ca,e as checkMinThrow(dim, new CompInfo(0,0,1,1))
-		if ( dim.width <= MAX_BLOCK_SIZE - this.xempty ) dim.width += this.xempty;
-		else throw new IllegalStateException("minimum size too large");
-		if ( dim.height <= MAX_BLOCK_SIZE - this.yempty ) dim.height += this.yempty;
-		else throw new IllegalStateException("minimum size too large");
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * marks the cached block sizes of the given {@link Container} as stale, they are discarded when a {@link CompInfo}
+	 * was modified.<br>
+	 * the stale sizes are verified before they are used again: when the sizes of the {@link Component Components} did
+	 * not change, they are kept without solving the axes again. a validation is tracked by an epoch of the outermost
+	 * {@link Container} with a {@link PatGridLayout} below the {@link Container#isValidateRoot() validate root}, which
+	 * advances whenever one of its {@link Container Containers} is invalidated, which is not resized by the
+	 * {@link PatGridLayout} of its parent. when a {@link Container} is only invalidated, because the layout of its
+	 * parent changed its size, its sizes stay valid for the current epoch without being verified, because they do not
+	 * depend on the size of the {@link Container}. invalidating the {@link Container Containers} of other hierarchies
+	 * does not advance the epoch.<br>
+	 * the sizes of the blocks are only discarded (for all {@link Container Containers} of this layout) when a
+	 * {@link BlockInfo} was modified
+	 */
+	@Override
+	public void invalidateLayout(Container target) {
+		ContainerState state = this.states.get(target);
+		if ( state != null ) {
+			if ( state.comps.refresh() ) {
+				// a CompInfo instance was modified
+				state.invalidate();
+			} else if ( state.placing ) {
+				// this layout resized a component, which does not modify the sizes of the components
+			} else if ( placedByParent(target) ) {
+				// the solved sizes do not depend on the size of the container, they stay valid in this epoch
+				if ( !state.stale ) {
+					AtomicLong scope = scope(target);
+					state.stale = true;
+					state.scope = scope;
+					state.epoch = scope.get();
+				}
+			} else {
+				// the sizes of the components may have changed
+				scope(target).incrementAndGet();
+				state.stale = true;
+			}
+		}
+		// the BlockInfo instances may have been modified, the tables are only discarded when they changed
+		BlockSize.Table t = this.xtable;
+		if ( t != null && !t.matches(this.xblocks, this.xafterblocks, this.xempty) ) {
+			invalidateX();
+		}
+		t = this.ytable;
+		if ( t != null && !t.matches(this.yblocks, this.yafterblocks, this.yempty) ) {
+			invalidateY();
+		}
 	}
 	
-	private void grow(BlockSize[][] sizes, CompInfo cinf, int bsi, Dimension cdim, boolean grow) {
-		// its already a mess this way calculating both wide and height at the same time would just blow the method
-		// calcWidth true and false go to a different loop structure (true: y outer, x inner; false: x outer, y inner)
-		// thus calculating both is more than just doubling all variables
-		// (and changing width/height calculation to use the loop of the other is not easy
-		// (it would probably need an array to store information and an after loop to evaluate the array)
-		grow(sizes, cinf, bsi, cdim, grow, true);
-		grow(sizes, cinf, bsi, cdim, grow, false);
-	}
-	
-	private void grow(BlockSize[][] sizes, CompInfo cinf, int bsi, Dimension cdim, boolean grow, boolean calcWidth) { // NOSONAR
-		final int x, y;// NOSONAR
-		final int h, w;// NOSONAR
-		final int width;
-		if ( calcWidth ) {
-			x = cinf.x;
-			y = cinf.y;
-			h = cinf.h;
-			w = cinf.w;
-			width = cdim.width;
-		} else {
-			x = cinf.y;
-			y = cinf.x;
-			h = cinf.w;
-			w = cinf.h;
-			width = cdim.height;
-		}
-		for (int yadd = h; --yadd >= 0;) {
-			boolean repeat;
-			do {
-				repeat = false;
-				int wsum = 0;
-				int yc = y + yadd;
-				for (int xadd = w, growPotBool = 0; --xadd >= 0;) {
-					int xc = x + xadd;
-					BlockSize s = get(sizes, xc, yc, calcWidth);
-					int sw = calcWidth ? s.w(bsi) : s.h(bsi);
-					wsum += sw == 0 ? empty(calcWidth) : sw;
-					if ( growPotBool == 0 ) {
-						BlockInfo inf = calcWidth ? xinf(xc) : yinf(yc);
-						if ( grow ) {
-							int infMax = inf.max;
-							if ( infMax == BlockInfo.DYNAMIC || infMax > sw ) {
-								growPotBool = 1;// NOSONAR
-							}
-						} else {
-							int infMin = inf.min;
-							if ( ( infMin == BlockInfo.DYNAMIC ? 0 : infMin ) < sw ) {
-								growPotBool = 1;// NOSONAR
-							}
-						}
-					}
-				}
-				if ( grow ? wsum >= width : wsum <= width ) {
-					continue;
-				}
-				int[] growPots = new int[w];
-				int growPot = 0;
-				for (int xadd = w; --xadd >= 0;) {
-					int xc = x + xadd;
-					BlockInfo inf = calcWidth ? xinf(xc) : yinf(yc);
-					if ( grow ) {
-						int imax = inf.max;
-						if ( imax == BlockInfo.DYNAMIC ) {
-							growPot = Integer.MAX_VALUE;
-							growPots[xadd] = Integer.MAX_VALUE;
-						} else {
-							int sw = get(sizes, yc, xc, bsi, calcWidth);
-							int curGrowPot = inf.max - sw;
-							if ( growPot != Integer.MAX_VALUE ) {
-								growPot += curGrowPot;
-							}
-							growPots[xadd] = curGrowPot;
-						}
-					} else {
-						int imin = inf.min;
-						int sw = get(sizes, yc, xc, bsi, calcWidth);
-						int curGrowPot = ( sw - ( imin == BlockInfo.DYNAMIC ? 0 : imin ) );
-						growPot += curGrowPot;
-						growPots[xadd] = curGrowPot;
-					}
-				}
-				int growPotCnt = 0;
-				for (int i = 0; i < growPots.length; i++) {
-					if ( growPots[i] != 0 ) {
-						growPotCnt++;
-					}
-				}
-				if ( growPotCnt != 0 ) {
-					// round up and check in loop if enough grow was already done
-					// thus repeat only needs to be set, when next iteration has less growPotential
-					// also this saves before (width - wsum) < growPotCnt
-					// (which would come eventually with rounding down behavior and no perfect fit)
-					int div = ( width - wsum + growPotCnt - 1 ) / growPotCnt;
-					for (int xadd = w, sum = 0; --xadd >= 0 && sum != width;) {
-						int curGrowPot = growPots[xadd];
-						if ( curGrowPot == 0 ) continue;
-						int curDiff;
-						if ( curGrowPot < div ) {
-							curDiff = curGrowPot;
-							repeat = true;
-						} else {
-							curDiff = div;
-						}
-						if ( sum + curDiff > width ) {
-							curDiff = width - sum;
-						}
-						sum += curDiff; // NOSONAR
-						int xc = x + xadd;
-						add(sizes, bsi, xc, yc, curDiff, calcWidth, grow);
-					}
+	/**
+	 * returns the epoch counter of the validation of the {@link Container}
+	 * <p>
+	 * this is the counter of the outermost {@link Container} with a {@link PatGridLayout}, which is not above the
+	 * {@link Container#isValidateRoot() validate root} of the given {@link Container}. so only invalidating a
+	 * {@link Container} of the same validation advances the epoch, other hierarchies are not affected
+	 * 
+	 * @param target a {@link Container} with a state
+	 * 
+	 * @return the epoch counter of the validation of the {@link Container}
+	 */
+	private static AtomicLong scope(Container target) {
+		AtomicLong scope = null;
+		for (Container c = target; c != null; c = c.getParent()) {
+			if ( c.getLayout() instanceof PatGridLayout pgl ) {
+				ContainerState state = pgl.states.get(c);
+				if ( state != null ) {
+					scope = state.epochs;
 				}
-			} while ( repeat );
+			}
+			if ( c.isValidateRoot() ) {
+				break;
+			}
 		}
+		return scope;
 	}
 	
-	private int empty(boolean calcWidth) {
-		return calcWidth ? this.xempty : this.yempty;
+	// true while the layout of the parent sets the bounds of the container
+	private static boolean placedByParent(Container target) {
+		Container parent = target.getParent();
+		if ( parent != null && parent.getLayout() instanceof PatGridLayout pgl ) {
+			ContainerState state = pgl.states.get(parent);
+			return state != null && state.placing;
+		}
+		return false;
 	}
 	
-	private static void add(BlockSize[][] sizes, int bsi, int xc, int yc, int addVal, boolean calcWidth, boolean grow) {
-		if ( calcWidth ) {
-			BlockSize bs = sizes[yc][xc];
-			int old = bs.w(bsi);
-			if ( grow ) {
-				bs.w(bsi, old + addVal);
-			} else {
-				bs.w(bsi, old - addVal);
-			}
-		} else {
-			BlockSize bs = sizes[xc][yc];
-			int old = bs.h(bsi);
-			if ( grow ) {
-				bs.h(bsi, old + addVal);
-			} else {
-				bs.h(bsi, old - addVal);
-			}
+	private void invalidateX() {
+		this.xtable = null;
+		for (ContainerState cache : this.states.values()) {
+			cache.xValid = false;
+			cache.clearLayoutSizes();
 		}
 	}
 	
-	private static int get(BlockSize[][] sizes, int yc, int xc, int bsi, boolean calcWidth) {
-		if ( calcWidth ) {
-			return sizes[yc][xc].w(bsi);
-		} else {
-			return sizes[xc][yc].h(bsi);
+	private void invalidateY() {
+		this.ytable = null;
+		for (ContainerState cache : this.states.values()) {
+			cache.yValid = false;
+			cache.clearLayoutSizes();
 		}
 	}
 	
-	private static BlockSize get(BlockSize[][] sizes, int xc, int yc, boolean calcWidth) {
-		if ( calcWidth ) {
-			return sizes[yc][xc];
-		} else {
-			return sizes[xc][yc];
+	/**
+	 * captures the constraints and the size hints of the {@link Component Components} of the {@link Container}
+	 * <p>
+	 * this method has to be invoked on the thread which is allowed to access the {@link Container} (normally the
+	 * event dispatch thread). the returned snapshot can then be {@link LayoutSnapshot#plan() solved} on any thread and
+	 * the plan can be {@link #apply(LayoutPlan) applied} later
+	 * 
+	 * @param parent the {@link Container}
+	 * 
+	 * @return an immutable snapshot of the layout of the {@link Container}
+	 * 
+	 * @throws IllegalStateException if a {@link Component} of the {@link Container} is not known
+	 */
+	public LayoutSnapshot snapshot(Container parent) throws IllegalStateException {
+		ContainerState state = state(parent);
+		if ( !updateSlots(parent, state) ) {
+			state.invalidate();
 		}
+		final int compCount = parent.getComponentCount();
+		Component[] comps = new Component[compCount];
+		int[] xs = new int[compCount];
+		int[] ys = new int[compCount];
+		int[] ws = new int[compCount];
+		int[] hs = new int[compCount];
+		float[] xAligns = new float[compCount];
+		float[] yAligns = new float[compCount];
+		FillMode[] widthModes = new FillMode[compCount];
+		FillMode[] heightModes = new FillMode[compCount];
+		int spanCount = blocks(state, xs, ys, ws, hs);
+		CompStore store = state.comps;
+		for (int i = compCount; --i >= 0;) {
+			int slot = state.slots[i];
+			comps[i] = parent.getComponent(i);
+			xAligns[i] = store.xAlign(slot);
+			yAligns[i] = store.yAlign(slot);
+			// modifiable fill modes are copied, so the plan does not see later modifications
+			widthModes[i] = MulFillMode.immutable(store.widthMode(slot));
+			heightModes[i] = MulFillMode.immutable(store.heightMode(slot));
+		}
+		// the solved sizes are not modified, when they are still valid the plan only needs to distribute the space.
+		// estimated hints (of the virtualized mode) are not used, the plan has to place every component
+		boolean solved = state.xValid && state.yValid && state.x != null && !state.estimated
+			&& ( !state.stale || state.current(scope(parent)) );
+		return new LayoutSnapshot(this, parent, state, state.modCount, comps, parent.getWidth(), parent.getHeight(),
+			xtable(), ytable(), xs, ys, ws, hs, spanCount, solved ? state.hints.values() : hints(parent, compCount),
+			xAligns, yAligns, widthModes, heightModes, solved ? state.x : null, solved ? state.y : null);
 	}
 	
-	private BlockInfo xinf(int x) {
-		if ( this.xblocks.length > x ) {
-			return this.xblocks[x];
+	/**
+	 * solves the given snapshot, this method does not access the {@link Container} or its {@link Component
+	 * Components}
+	 * <p>
+	 * the bounds of {@link Component Components} with a {@link FillMode} which is not implemented in this package are
+	 * calculated when the plan is {@link #apply(LayoutPlan) applied}, because their {@link FillMode} may access the
+	 * {@link Component}
+	 * 
+	 * @param snap   the snapshot
+	 * @param width  the width of the {@link Container}
+	 * @param height the height of the {@link Container}
+	 * 
+	 * @return the plan
+	 */
+	static LayoutPlan plan(LayoutSnapshot snap, int width, int height) {
+		final int compCount = snap.comps.length;
+		int[] bounds = new int[compCount * 4];
+		boolean[] deferred = new boolean[compCount];
+		if ( compCount == 0 ) {
+			return new LayoutPlan(snap, width, height, null, null, bounds, deferred);
 		}
-		return this.xafterblocks[( x - this.xblocks.length ) % this.xafterblocks.length];
+		BlockSize xsizes;
+		BlockSize ysizes;
+		if ( snap.x != null ) {
+			// the positions are buffers, so each plan needs its own instance
+			xsizes = snap.x.share();
+			ysizes = snap.y.share();
+		} else {
+			xsizes = new BlockSize(snap.xtable, SIZE_KINDS, snap.xs, snap.ws, compCount);
+			ysizes = new BlockSize(snap.ytable, SIZE_KINDS, snap.ys, snap.hs, compCount);
+			fill(xsizes, ysizes, snap.xtable.empty, snap.ytable.empty, snap.hints, snap.xs, snap.ys, snap.ws, snap.hs,
+				snap.spanCount);
+		}
+		int[] yminpos = ysizes.positions(height);
+		int[] xminpos = xsizes.positions(width);
+		SizeHints hints = new SizeHints();
+		hints.values(snap.hints);
+		for (int i = compCount; --i >= 0;) {
+			int bi = i * 4;
+			cell(bounds, bi, xsizes, ysizes, xminpos, yminpos, snap.xs[i], snap.ys[i], snap.ws[i], snap.hs[i]);
+			if ( !MulFillMode.builtIn(snap.widthModes[i]) || !MulFillMode.builtIn(snap.heightModes[i]) ) {
+				deferred[i] = true;
+				continue;
+			}
+			hints.component(i);
+			place(bounds, bi, snap.comps[i], null, snap.widthModes[i], snap.heightModes[i], hints, snap.xAligns[i],
+				snap.yAligns[i]);
+		}
+		return new LayoutPlan(snap, width, height, xsizes, ysizes, bounds, deferred);
 	}
 	
-	private BlockInfo yinf(int y) {
-		if ( this.yblocks.length > y ) {
-			return this.yblocks[y];
+	/**
+	 * applies the bounds of the plan to the {@link Component Components}
+	 * <p>
+	 * this method has to be invoked on the thread which is allowed to access the {@link Container} (normally the
+	 * event dispatch thread).<br>
+	 * the plan is only applied when it is still valid: the {@link Container} has the size of the plan and still has the
+	 * same {@link Component Components}, and when its layout was {@link #invalidateLayout(Container) invalidated} since
+	 * the {@link #snapshot(Container) snapshot} was created, the blocks, the constraints and the sizes of the
+	 * {@link Component Components} are still the ones of the snapshot (so a plan is still applied after the plan of the
+	 * parent resized the {@link Container}). otherwise nothing is done and a new snapshot is needed.<br>
+	 * when the plan is applied its sizes are used by the {@link Container} until its layout is invalidated
+	 * 
+	 * @param plan the plan
+	 * 
+	 * @return {@code true} if the plan was applied and {@code false} if it is no longer valid
+	 * 
+	 * @throws IllegalArgumentException if the plan was not created from a snapshot of this layout
+	 */
+	public boolean apply(LayoutPlan plan) throws IllegalArgumentException {
+		LayoutSnapshot snap = plan.snapshot;
+		if ( snap.layout != this ) {
+			throw new IllegalArgumentException("the plan was not created from a snapshot of this layout");
+		}
+		Container parent = snap.parent;
+		ContainerState state = this.states.get(parent);
+		if ( state != snap.state || parent.getWidth() != plan.width || parent.getHeight() != plan.height
+			|| parent.getComponentCount() != snap.comps.length ) {
+			return false;
+		}
+		for (int i = snap.comps.length; --i >= 0;) {
+			if ( parent.getComponent(i) != snap.comps[i] ) {
+				return false;
+			}
+		}
+		if ( !updateSlots(parent, state) ) {
+			state.invalidate();
+			return false;
+		}
+		// the layout may have been invalidated, for example when the plan of the parent resized the container
+		if ( ( state.modCount != snap.modCount || state.stale && !state.current(scope(parent)) )
+			&& !unchanged(state, snap) ) {
+			return false;
 		}
+		state.hints.values(snap.hints);
+		CompStore store = state.comps;
+		int[] bounds = plan.bounds;
+		BiConsumer<? super Container,? super Rectangle> listener = this.dirtyRegionListener;
+		Rectangle old = listener == null ? null : new Rectangle();
+		Rectangle dirty = null;
+		state.placing = true;
 		try {
-			return this.yafterblocks[( y - this.yblocks.length ) % this.yafterblocks.length];
-		} catch ( @SuppressWarnings( "unused" ) ArithmeticException e ) {
-			throw new IndexOutOfBoundsException("there is no y block with the number " + y);
+			for (int i = snap.comps.length; --i >= 0;) {
+				int bi = i * 4;
+				if ( plan.deferred[i] ) {
+					int slot = state.slots[i];
+					state.hints.component(i);
+					place(bounds, bi, snap.comps[i], store.fillModeInfo(slot), store.widthMode(slot),
+						store.heightMode(slot), state.hints, store.xAlign(slot), store.yAlign(slot));
+				}
+				if ( old != null ) {
+					snap.comps[i].getBounds(old);
+				}
+				if ( setBounds(snap.comps[i], bounds[bi], bounds[bi + 1], bounds[bi + 2], bounds[bi + 3])
+					&& old != null ) {
+					dirty = dirty(dirty, old.x, old.y, old.width, old.height);
+					dirty = dirty(dirty, bounds[bi], bounds[bi + 1], bounds[bi + 2], bounds[bi + 3]);
+				}
+			}
+		} finally {
+			state.placing = false;
+		}
+		// setting the bounds may have invalidated the layout, the sizes of the plan are still up to date
+		forget(state);
+		state.clearLayoutSizes();
+		state.x = plan.x;
+		state.y = plan.y;
+		state.xs = snap.xs;
+		state.ys = snap.ys;
+		state.ws = snap.ws;
+		state.hs = snap.hs;
+		state.spanCount = snap.spanCount;
+		state.xHash = axisHash(snap.hints, 0, snap.xs, snap.ws);
+		state.yHash = axisHash(snap.hints, 1, snap.ys, snap.hs);
+		state.xValid = true;
+		state.yValid = true;
+		state.estimated = false;
+		state.stale = false;
+		if ( dirty != null ) {
+			listener.accept(parent, dirty);
+		}
+		return true;
+	}
+	
+	// true if the blocks, the constraints and the size hints are still the ones captured by the snapshot
+	private boolean unchanged(ContainerState state, LayoutSnapshot snap) {
+		if ( !snap.xtable.same(xtable()) || !snap.ytable.same(ytable()) ) {
+			return false;
 		}
+		CompStore store = state.comps;
+		int[] hints = snap.hints.clone();
+		// the fill modes of the snapshot are immutable copies, comparing them by value detects later modifications
+		for (int i = snap.comps.length; --i >= 0;) {
+			int slot = state.slots[i];
+			if ( store.x(slot) != snap.xs[i] || store.y(slot) != snap.ys[i] || store.w(slot) != snap.ws[i]
+				|| store.h(slot) != snap.hs[i]
+				|| Float.floatToRawIntBits(store.xAlign(slot)) != Float.floatToRawIntBits(snap.xAligns[i])
+				|| Float.floatToRawIntBits(store.yAlign(slot)) != Float.floatToRawIntBits(snap.yAligns[i])
+				|| !store.widthMode(slot).equals(snap.widthModes[i])
+				|| !store.heightMode(slot).equals(snap.heightModes[i])
+				|| hints(snap.comps[i], hints, i * SizeHints.VALUES) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	// stores the available space of the component (x, y, width and height) in the bounds
+	private static void cell(int[] bounds, int bi, BlockSize xsizes, BlockSize ysizes, int[] xminpos, int[] yminpos,
+		int xb, int yb, int wb, int hb) {
+		int xmin = xminpos[xsizes.segment(xb)];
+		int ymin = yminpos[ysizes.segment(yb)];
+		bounds[bi] = xmin;
+		bounds[bi + 1] = ymin;
+		bounds[bi + 2] = xminpos[xsizes.segment(xb + wb)] - xsizes.empty - xmin;
+		bounds[bi + 3] = yminpos[ysizes.segment(yb + hb)] - ysizes.empty - ymin;
+	}
+	
+	// replaces the available space of the component in the bounds with its bounds
+	private static void place(int[] bounds, int bi, Component comp, CompInfo inf, FillMode widthMode,
+		FillMode heightMode, SizeHints hints, float xAlign, float yAlign) {
+		int maxWidth = bounds[bi + 2];
+		int maxHeight = bounds[bi + 3];
+		int w, h;
+		long both = bothSizes(comp, inf, widthMode, heightMode, hints, maxWidth, maxHeight);
+		if ( both != AdvancedFillMode.NO_SIZES ) {
+			h = AdvancedFillMode.height(both);
+			w = AdvancedFillMode.width(both);
+		} else {
+			h = heightMode.size(comp, inf, hints, maxWidth, maxHeight, false);
+			w = widthMode.size(comp, inf, hints, maxWidth, maxHeight, true);
+		}
+		int height = size(h, maxHeight);
+		int width = size(w, maxWidth);
+		bounds[bi] = calcPos(maxWidth, width, bounds[bi], xAlign);
+		bounds[bi + 1] = calcPos(maxHeight, height, bounds[bi + 1], yAlign);
+		bounds[bi + 2] = width;
+		bounds[bi + 3] = height;
+	}
+	
+	private Dimension calcSize(ContainerState cache, int bsi) {
+		if ( cache.x == null ) {
+			return new Dimension(this.xempty, this.yempty);
+		}
+		return new Dimension(cache.x.size(bsi), cache.y.size(bsi));
 	}
 	
 	/**
 	 * {@inheritDoc}
 	 * <p>
-	 * does nothing and just returns
+	 * in the {@link #virtualized(boolean) virtualized} mode only the {@link Component Components} near the visible
+	 * region of the {@link JViewport} are measured and placed
 	 */
 	@Override
-	public void invalidateLayout(@SuppressWarnings( "unused" ) Container target) {/**/}
-	
-	private Dimension calcSize(BlockSize[][] sizes) {
-		final int yBlockCount = sizes.length;
-		final int xBlockCount = sizes[0].length;
-		int[] yminpos = new int[yBlockCount + 1];
-		int[] xminpos = new int[xBlockCount + 1];
-		for (int y = yBlockCount; --y >= 0;) { // calculate the width/height
-			BlockSize[] bsa = sizes[y];
-			for (int x = xBlockCount; --x >= 0;) {
-				BlockSize bs = bsa[x];
-				int val = bs.h(0);
-				if ( val > yminpos[y + 1] ) {
-					yminpos[y + 1] = val;
-				}
-				val = bs.w(0);
-				if ( val > xminpos[x + 1] ) {
-					xminpos[x + 1] = val;
+	public void layoutContainer(Container parent) {
+		ContainerState sizes = solve(parent, state(parent));
+		if ( sizes.x == null ) return;
+		// the region in which the components are placed, only limited in the virtualized mode
+		int top = Integer.MIN_VALUE;
+		int bottom = Integer.MAX_VALUE;
+		JViewport viewport = this.virtualized ? viewport(parent) : null;
+		if ( viewport != null ) {
+			listen(viewport, parent, sizes);
+			Rectangle view = viewport.getViewRect();
+			top = view.y - this.overscan;
+			bottom = view.y + view.height + this.overscan;
+			long preferred = preferred(sizes);
+			if ( measureRegion(parent, sizes, top, bottom) && preferred(sizes) != preferred ) {
+				resized(parent, viewport);
+			}
+		}
+		// only the free space needs to be distributed again, the cached sizes stay unmodified for the next resize
+		// the position arrays are buffers of the cached sizes, so a relayout does not need to allocate them again
+		int[] yminpos = sizes.y.positions(parent.getHeight());
+		int[] xminpos = sizes.x.positions(parent.getWidth());
+		if ( doLogging() ) {
+			log("positions:", //
+				"  y: " + Arrays.toString(yminpos), //
+				"  x: " + Arrays.toString(xminpos));
+		}
+		BiConsumer<? super Container,? super Rectangle> listener = this.dirtyRegionListener;
+		// only allocated when the moved components are reported
+		Rectangle old = listener == null ? null : new Rectangle();
+		Rectangle dirty = null;
+		CompStore store = sizes.comps;
+		int[] slots = sizes.slots;
+		sizes.placing = true;
+		try {
+			if ( viewport != null ) {
+				dirty = placeRegion(parent, sizes, xminpos, yminpos, top, bottom, old, dirty);
+			} else {
+				for (int i = slots.length; --i >= 0;) {
+					int slot = slots[i];
+					int yb = store.y(slot);
+					int ymin = yminpos[sizes.y.segment(yb)];
+					int ymax = yminpos[sizes.y.segment(yb + store.h(slot))] - this.yempty;
+					dirty = place(parent, sizes, i, xminpos, ymin, ymax, old, dirty);
 				}
 			}
+		} finally {
+			sizes.placing = false;
 		}
-		yminpos[0] = this.yempty;
-		xminpos[0] = this.xempty;
-		for (int i = 1; i <= yBlockCount; i++) { // convert width/height to positions
-			check(yminpos, i, yinf(i - 1), this.yempty);
-			yminpos[i] += yminpos[i - 1];
+		if ( viewport != null ) {
+			placed(parent, sizes, top, bottom);
 		}
-		for (int i = 1; i <= xBlockCount; i++) {
-			check(xminpos, i, xinf(i - 1), this.xempty);
-			xminpos[i] += xminpos[i - 1];
+		if ( dirty != null ) {
+			listener.accept(parent, dirty);
 		}
-		return new Dimension(xminpos[xBlockCount], yminpos[yBlockCount]);
 	}
 	
-	/** {@inheritDoc} */
-	@Override
-	public void layoutContainer(Container parent) {
-		BlockSize[][] sizes = layoutSizes(parent, LAYOUT_SIZES_MINIMUM | LAYOUT_SIZES_MAXIMUM);
-		if ( sizes == null ) return;
-		final int yBlockCount = sizes.length;
-		final int xBlockCount = sizes[0].length;
-		int[] yminpos = new int[yBlockCount + 1];
-		int[] ymaxpos = new int[yBlockCount + 1];
-		int[] xminpos = new int[xBlockCount + 1];
-		int[] xmaxpos = new int[xBlockCount + 1];
-		Arrays.fill(ymaxpos, Integer.MAX_VALUE);
-		Arrays.fill(xmaxpos, Integer.MAX_VALUE);
-		for (int y = yBlockCount; --y >= 0;) { // calculate the width/height
-			BlockSize[] bsa = sizes[y];
-			for (int x = xBlockCount; --x >= 0;) {
-				BlockSize bs = bsa[x];
-				int val = bs.h(0);
-				if ( val > yminpos[y + 1] ) {
-					yminpos[y + 1] = val;
-				}
-				val = bs.h(1);
-				if ( val > ymaxpos[y + 1] ) {
-					ymaxpos[y + 1] = val;
-				}
-				val = bs.w(0);
-				if ( val > xminpos[x + 1] ) {
-					xminpos[x + 1] = val;
+	/**
+	 * places the components of the virtualized mode, which intersect the region
+	 * <p>
+	 * only the rows of the region are visited. the {@link Component Components} placed outside of the region by an
+	 * earlier layout are remembered: when the positions changed since then, they are placed again when their old
+	 * bounds intersect the region and hidden when their old bounds are outside of their rows (see
+	 * {@link #displaced(Component, int, int)}). the other {@link Component Components} are not touched
+	 * 
+	 * @param parent  the view
+	 * @param sizes   the solved cache of the view
+	 * @param xminpos the positions of the x blocks
+	 * @param yminpos the positions of the y blocks
+	 * @param top     the start of the region
+	 * @param bottom  the end of the region
+	 * @param old     a buffer for the old bounds or {@code null} if the moved components are not reported
+	 * @param dirty   the region of the moved components or {@code null}
+	 * 
+	 * @return the region of the moved components or {@code null}
+	 */
+	private Rectangle placeRegion(Container parent, ContainerState sizes, int[] xminpos, int[] yminpos, int top,
+		int bottom, Rectangle old, Rectangle dirty) {
+		CompStore store = sizes.comps;
+		int[] slots = sizes.slots;
+		if ( sizes.showing == null ) {
+			// the bounds may have been set before the virtualized mode was enabled
+			sizes.showing = new boolean[slots.length];
+			sizes.shown = new int[slots.length];
+			sizes.shownCount = 0;
+			for (int i = 0; i < slots.length; i++) {
+				Component comp = parent.getComponent(i);
+				if ( comp.getWidth() > 0 && comp.getHeight() > 0 ) {
+					shown(sizes, i);
 				}
-				val = bs.w(1);
-				if ( val > xmaxpos[x + 1] ) {
-					xmaxpos[x + 1] = val;
+			}
+		}
+		if ( moved(parent, sizes) ) {
+			int[] shown = sizes.shown;
+			int count = 0;
+			for (int k = 0; k < sizes.shownCount; k++) {
+				int i = shown[k];
+				int slot = slots[i];
+				int yb = store.y(slot);
+				int ymin = yminpos[sizes.y.segment(yb)];
+				int ymax = yminpos[sizes.y.segment(yb + store.h(slot))] - this.yempty;
+				Component comp = parent.getComponent(i);
+				if ( ( ymax <= top || ymin >= bottom ) && intersects(comp, top, bottom) ) {
+					dirty = place(parent, sizes, i, xminpos, ymin, ymax, old, dirty);
+				} else if ( ( ymax <= top || ymin >= bottom ) && displaced(comp, ymin, ymax) ) {
+					sizes.showing[i] = false;
+					continue;
 				}
+				shown[count++] = i;
+			}
+			sizes.shownCount = count;
+		}
+		int[] rows = rows(sizes);
+		for (int k = firstRow(sizes, yminpos, top); k < rows.length; k++) {
+			int i = rows[k];
+			int slot = slots[i];
+			int yb = store.y(slot);
+			int ymin = yminpos[sizes.y.segment(yb)];
+			if ( ymin >= bottom ) {
+				break;
+			}
+			int ymax = yminpos[sizes.y.segment(yb + store.h(slot))] - this.yempty;
+			if ( ymax > top ) {
+				dirty = place(parent, sizes, i, xminpos, ymin, ymax, old, dirty);
+				shown(sizes, i);
 			}
 		}
-		for (int x = xBlockCount; --x >= 0;) {
-			BlockInfo inf = xinf(x);
-			if ( xminpos[x + 1] < inf.min ) {
-				xminpos[x + 1] = inf.min;
+		return dirty;
+	}
+	
+	// remembers that the bounds of the component were set in the virtualized mode
+	private static void shown(ContainerState sizes, int i) {
+		if ( !sizes.showing[i] ) {
+			sizes.showing[i] = true;
+			sizes.shown[sizes.shownCount++] = i;
+		}
+	}
+	
+	// true if the components may have been placed with other positions than the current ones
+	private static boolean moved(Container parent, ContainerState sizes) {
+		return sizes.placedX != sizes.x || sizes.placedY != sizes.y || sizes.placedWidth != parent.getWidth()
+			|| sizes.placedHeight != parent.getHeight();
+	}
+	
+	/**
+	 * places the component in its blocks
+	 * 
+	 * @param parent  the {@link Container}
+	 * @param sizes   the solved cache of the {@link Container}
+	 * @param i       the index of the component
+	 * @param xminpos the positions of the x blocks
+	 * @param ymin    the start of the rows of the component
+	 * @param ymax    the end of the rows of the component
+	 * @param old     a buffer for the old bounds or {@code null} if the moved components are not reported
+	 * @param dirty   the region of the moved components or {@code null}
+	 * 
+	 * @return the region of the moved components or {@code null}
+	 */
+	private Rectangle place(Container parent, ContainerState sizes, int i, int[] xminpos, int ymin, int ymax,
+		Rectangle old, Rectangle dirty) {
+		Component comp = parent.getComponent(i);
+		CompStore store = sizes.comps;
+		SizeHints hints = sizes.hints;
+		int slot = sizes.slots[i];
+		// null if the fill modes do not use it
+		CompInfo inf = store.fillModeInfo(slot);
+		FillMode widthMode = store.widthMode(slot);
+		FillMode heightMode = store.heightMode(slot);
+		hints.component(i);
+		int xb = store.x(slot);
+		int xmin = xminpos[sizes.x.segment(xb)];
+		int xmax = xminpos[sizes.x.segment(xb + store.w(slot))] - this.xempty;
+		int maxHeight = ymax - ymin;
+		int maxWidth = xmax - xmin;
+		int w, h;
+		long both = bothSizes(comp, inf, widthMode, heightMode, hints, maxWidth, maxHeight);
+		if ( both != AdvancedFillMode.NO_SIZES ) {
+			h = AdvancedFillMode.height(both);
+			w = AdvancedFillMode.width(both);
+		} else {
+			h = heightMode.size(comp, inf, hints, maxWidth, maxHeight, false);
+			w = widthMode.size(comp, inf, hints, maxWidth, maxHeight, true);
+		}
+		int ypos, xpos; // NOSONAR
+		int width, height; // NOSONAR
+		height = size(h, maxHeight);
+		width = size(w, maxWidth);
+		ypos = calcPos(maxHeight, height, ymin, store.yAlign(slot));
+		xpos = calcPos(maxWidth, width, xmin, store.xAlign(slot));
+		if ( old != null ) {
+			comp.getBounds(old);
+		}
+		if ( setBounds(comp, xpos, ypos, width, height) && old != null ) {
+			dirty = dirty(dirty, old.x, old.y, old.width, old.height);
+			dirty = dirty(dirty, xpos, ypos, width, height);
+		}
+		if ( doLogging() ) {
+			log("comp: " + comp, //
+				"  bounds:  x=" + xpos + " y=" + ypos + " w=" + width + " h=" + height, //
+				"  MBounds: x=" + xmin + " y=" + ymin + " w=" + maxWidth + " h=" + maxHeight, //
+				"  wanted size: w=" + w + " h=" + h, //
+				"  wideMode: " + widthMode, //
+				"  heightMode: " + heightMode);
+		}
+		return dirty;
+	}
+	
+	// remembers the region and the sizes with which the components of the virtualized mode were placed
+	private static void placed(Container parent, ContainerState sizes, int top, int bottom) {
+		sizes.placedTop = top;
+		sizes.placedBottom = bottom;
+		sizes.placedWidth = parent.getWidth();
+		sizes.placedHeight = parent.getHeight();
+		sizes.placedX = sizes.x;
+		sizes.placedY = sizes.y;
+	}
+	
+	// the preferred width and height of the solved axes
+	private static long preferred(ContainerState sizes) {
+		return ( (long) sizes.x.size(PREFERRED) << 32 ) | ( sizes.y.size(PREFERRED) & 0xFFFFFFFFL );
+	}
+	
+	/**
+	 * the preferred size of the view changed after newly visible {@link Component Components} were measured, the
+	 * cached size of the view is discarded and the {@link JViewport} is {@link JViewport#revalidate() revalidated},
+	 * so it adopts the new size
+	 * 
+	 * @param parent   the view
+	 * @param viewport the {@link JViewport}
+	 */
+	private static void resized(Container parent, JViewport viewport) {
+		parent.invalidate();
+		viewport.revalidate();
+	}
+	
+	/**
+	 * lays out the view of a {@link JViewport} after it was scrolled
+	 * <p>
+	 * when the view was placed with its current sizes, only the {@link Component Components} which entered the
+	 * visible region are measured and placed. only when their measured sizes differ from the sizes with which the
+	 * axes were solved, the axes are solved again and the view is laid out completely, otherwise the other
+	 * {@link Component Components} are not touched
+	 * 
+	 * @param parent   the view
+	 * @param viewport the {@link JViewport}
+	 */
+	private void scrolled(Container parent, JViewport viewport) {
+		ContainerState sizes = this.states.get(parent);
+		if ( sizes == null || sizes.stale || !sizes.xValid || !sizes.yValid || sizes.x == null
+			|| sizes.showing == null || moved(parent, sizes) ) {
+			parent.doLayout();
+			return;
+		}
+		Rectangle view = viewport.getViewRect();
+		int top = view.y - this.overscan;
+		int bottom = view.y + view.height + this.overscan;
+		int placedTop = sizes.placedTop;
+		int placedBottom = sizes.placedBottom;
+		CompStore store = sizes.comps;
+		int[] slots = sizes.slots;
+		int[] rows = rows(sizes);
+		int[] yminpos = sizes.y.positions(parent.getHeight());
+		int first = firstRow(sizes, yminpos, top);
+		boolean modified = false;
+		for (int k = first; k < rows.length; k++) {
+			int i = rows[k];
+			int slot = slots[i];
+			int yb = store.y(slot);
+			int ymin = yminpos[sizes.y.segment(yb)];
+			if ( ymin >= bottom ) {
+				break;
 			}
-			if ( xmaxpos[x + 1] > inf.max ) {
-				xmaxpos[x + 1] = inf.max;
+			int ymax = yminpos[sizes.y.segment(yb + store.h(slot))] - this.yempty;
+			if ( ymax > top && ( ymax <= placedTop || ymin >= placedBottom ) && remeasure(parent, sizes, i) ) {
+				modified = true;
 			}
 		}
-		for (int y = yBlockCount; --y >= 0;) {
-			BlockInfo inf = yinf(y);
-			if ( yminpos[y + 1] < inf.min ) {
-				yminpos[y + 1] = inf.min;
+		if ( modified ) {
+			long preferred = preferred(sizes);
+			sizes.xValid = false;
+			sizes.yValid = false;
+			sizes.clearLayoutSizes();
+			solve(parent, sizes);
+			parent.doLayout();
+			if ( preferred(sizes) != preferred ) {
+				resized(parent, viewport);
 			}
-			if ( ymaxpos[y + 1] > inf.max ) {
-				ymaxpos[y + 1] = inf.max;
+			return;
+		}
+		int[] xminpos = sizes.x.positions(parent.getWidth());
+		BiConsumer<? super Container,? super Rectangle> listener = this.dirtyRegionListener;
+		Rectangle old = listener == null ? null : new Rectangle();
+		Rectangle dirty = null;
+		sizes.placing = true;
+		try {
+			for (int k = first; k < rows.length; k++) {
+				int i = rows[k];
+				int slot = slots[i];
+				int yb = store.y(slot);
+				int ymin = yminpos[sizes.y.segment(yb)];
+				if ( ymin >= bottom ) {
+					break;
+				}
+				int ymax = yminpos[sizes.y.segment(yb + store.h(slot))] - this.yempty;
+				if ( ymax > top && ( ymax <= placedTop || ymin >= placedBottom ) ) {
+					dirty = place(parent, sizes, i, xminpos, ymin, ymax, old, dirty);
+					shown(sizes, i);
+				}
 			}
+		} finally {
+			sizes.placing = false;
 		}
-		yminpos[0] = ymaxpos[0] = this.yempty;
-		xminpos[0] = xmaxpos[0] = this.xempty;
-		if ( doLogging() ) {
-			log("sizes:", //
-				"  ymin: " + Arrays.toString(yminpos), //
-				"  ymax: " + Arrays.toString(ymaxpos), //
-				"  xmin: " + Arrays.toString(xminpos), //
-				"  xmax: " + Arrays.toString(xmaxpos));
-		}
-		for (int i = 1; i <= yBlockCount; i++) { // convert width/height to positions
-			BlockInfo inf = yinf(i - 1);
-			check(yminpos, i, inf, this.yempty);
-			check(ymaxpos, i, inf, this.yempty);
-			yminpos[i] += yminpos[i - 1];// + yEmpty is not needed, because layoutSizes already adds empty
-			ymaxpos[i] += ymaxpos[i - 1];
-		}
-		for (int i = 1; i <= xBlockCount; i++) {
-			BlockInfo inf = xinf(i - 1);
-			check(xminpos, i, inf, this.xempty);
-			check(xmaxpos, i, inf, this.xempty);
-			xminpos[i] += xminpos[i - 1];
-			xmaxpos[i] += xmaxpos[i - 1];
+		// the components placed before stay placed, only the region near the view is kept up to date
+		placed(parent, sizes, top, bottom);
+		if ( dirty != null ) {
+			listener.accept(parent, dirty);
 		}
-		if ( doLogging() ) {
-			log("positions:", //
-				"  ymin: " + Arrays.toString(yminpos), //
-				"  ymax: " + Arrays.toString(ymaxpos), //
-				"  xmin: " + Arrays.toString(xminpos), //
-				"  xmax: " + Arrays.toString(xmaxpos));
-		}
-		int totalHeight = parent.getHeight();
-		adjust(yminpos, ymaxpos, totalHeight);
-		int totalWidth = parent.getWidth();
-		adjust(xminpos, xmaxpos, totalWidth);
-		for (int i = parent.getComponentCount(); --i >= 0;) {
-			Component comp = parent.getComponent(i);
-			CompInfo inf = this.comps.get(comp);
-			int xb = inf.x;
-			int yb = inf.y;
-			int wb = inf.w;
-			int hb = inf.h;
-			int ymin = yminpos[yb];
-			int ymax = yminpos[yb + hb] - this.yempty;
-			int xmin = xminpos[xb];
-			int xmax = xminpos[xb + wb] - this.xempty;
-			int maxHeight = ymax - ymin;
-			int maxWidth = xmax - xmin;
-			int w, h;
-			Dimension dim;
-			if ( ( inf.heightMode instanceof FillMode.AdvancedFillMode afm
-				&& ( dim = afm.bothSizes(comp, inf, maxWidth, maxHeight, false, inf.widthMode) ) != null )
-				|| ( inf.widthMode instanceof FillMode.AdvancedFillMode afm
-					&& ( dim = afm.bothSizes(comp, inf, maxWidth, maxHeight, false, inf.heightMode) ) != null ) ) {
-				h = dim.height;
-				w = dim.width;
+	}
+	
+	/**
+	 * returns the indices of the components sorted by their first row
+	 * <p>
+	 * the index is built when it is first needed after the components or their constraints changed, together with
+	 * the largest end row of each prefix, which allows a binary search for the first component near a position
+	 * 
+	 * @param sizes the solved cache of the {@link Container}
+	 * 
+	 * @return the indices of the components sorted by their first row
+	 */
+	private static int[] rows(ContainerState sizes) {
+		int[] rows = sizes.rows;
+		if ( rows != null ) {
+			return rows;
+		}
+		CompStore store = sizes.comps;
+		int[] slots = sizes.slots;
+		long[] keys = new long[slots.length];
+		for (int i = slots.length; --i >= 0;) {
+			keys[i] = ( (long) store.y(slots[i]) << 32 ) | i;
+		}
+		Arrays.sort(keys);
+		rows = new int[keys.length];
+		int[] ends = new int[keys.length];
+		int end = 0;
+		for (int k = 0; k < keys.length; k++) {
+			int i = (int) keys[k];
+			int slot = slots[i];
+			rows[k] = i;
+			end = Math.max(end, store.y(slot) + store.h(slot));
+			ends[k] = end;
+		}
+		sizes.rows = rows;
+		sizes.rowEnds = ends;
+		return rows;
+	}
+	
+	// the first index of the sorted rows, from which on a component may end after top
+	// each end of the prefixes is the end of a component, so it starts a segment of the y axis
+	private int firstRow(ContainerState sizes, int[] yminpos, int top) {
+		int[] ends = sizes.rowEnds;
+		int low = 0;
+		int high = ends.length;
+		while ( low < high ) {
+			int mid = ( low + high ) >>> 1;
+			if ( yminpos[sizes.y.segment(ends[mid])] - this.yempty > top ) {
+				high = mid;
 			} else {
-				h = inf.heightMode.size(comp, inf, maxWidth, maxHeight, false);
-				w = inf.widthMode.size(comp, inf, maxWidth, maxHeight, true);
+				low = mid + 1;
+			}
+		}
+		return low;
+	}
+	
+	/**
+	 * returns the {@link JViewport} which shows the {@link Container} or {@code null}
+	 * 
+	 * @param parent the {@link Container}
+	 * 
+	 * @return the {@link JViewport} which shows the {@link Container} or {@code null}
+	 */
+	private static JViewport viewport(Container parent) {
+		if ( parent.getParent() instanceof JViewport vp && vp.getView() == parent ) {
+			return vp;
+		}
+		return null;
+	}
+	
+	/**
+	 * ensures that the {@link Container} is laid out again when the {@link JViewport} is scrolled
+	 * <p>
+	 * the installed listener is remembered by the state of the {@link Container}, so the listeners of the
+	 * {@link JViewport} are not searched on each layout
+	 * 
+	 * @param viewport the {@link JViewport}
+	 * @param view     the {@link Container} shown by the {@link JViewport}
+	 * @param sizes    the state of the {@link Container}
+	 */
+	private void listen(JViewport viewport, Container view, ContainerState sizes) {
+		ViewportListener listener = sizes.viewportListener;
+		if ( listener != null && listener.viewport == viewport ) {
+			return;
+		}
+		listener = new ViewportListener(this, viewport, view);
+		viewport.addChangeListener(listener);
+		sizes.viewportListener = listener;
+	}
+	
+	/**
+	 * measures the components which intersect the region, only the rows of the region are visited
+	 * <p>
+	 * when the measured sizes of a component differ from the sizes with which the axes were solved, the axes are
+	 * solved again with the new sizes, which may move the rows in the region. this is repeated until the sizes in the
+	 * region match (at most {@value #MEASURE_ROUNDS} times)
+	 * 
+	 * @param parent the {@link Container}
+	 * @param sizes  the solved cache of the {@link Container}
+	 * @param top    the start of the region
+	 * @param bottom the end of the region
+	 * 
+	 * @return {@code true} if the axes were solved again
+	 */
+	private boolean measureRegion(Container parent, ContainerState sizes, int top, int bottom) {
+		CompStore store = sizes.comps;
+		int[] slots = sizes.slots;
+		boolean solved = false;
+		for (int round = 0; round < MEASURE_ROUNDS; round++) {
+			int[] yminpos = sizes.y.positions(parent.getHeight());
+			int[] rows = rows(sizes);
+			boolean modified = false;
+			for (int k = firstRow(sizes, yminpos, top); k < rows.length; k++) {
+				int i = rows[k];
+				int slot = slots[i];
+				int yb = store.y(slot);
+				int ymin = yminpos[sizes.y.segment(yb)];
+				if ( ymin >= bottom ) {
+					break;
+				}
+				int ymax = yminpos[sizes.y.segment(yb + store.h(slot))] - this.yempty;
+				if ( ymax > top && remeasure(parent, sizes, i) ) {
+					modified = true;
+				}
 			}
-			int ypos, xpos; // NOSONAR
-			int width, height; // NOSONAR
-			height = size(h, maxHeight);
-			width = size(w, maxWidth);
-			ypos = calcPos(maxHeight, height, ymin, inf.aligny);
-			xpos = calcPos(maxWidth, width, xmin, inf.alignx);
-			comp.setBounds(xpos, ypos, width, height);
-			if ( doLogging() ) {
-				log("comp: " + comp, //
-					"  bounds:  x=" + xpos + " y=" + ypos + " w=" + width + " h=" + height, //
-					"  MBounds: x=" + xmin + " y=" + ymin + " w=" + maxWidth + " h=" + maxHeight, //
-					"  wanted size: w=" + w + " h=" + h, //
-					"  wideMode: " + inf.widthMode, //
-					"  heightMode: " + inf.heightMode);
+			if ( !modified ) {
+				break;
+			}
+			sizes.xValid = false;
+			sizes.yValid = false;
+			sizes.clearLayoutSizes();
+			solve(parent, sizes);
+			solved = true;
+		}
+		return solved;
+	}
+	
+	// a component which was never placed has empty bounds and does not need to be moved out of the region
+	private static boolean intersects(Component comp, int top, int bottom) {
+		int y = comp.getY();
+		int height = comp.getHeight();
+		return height > 0 && comp.getWidth() > 0 && y + height > top && y < bottom;
+	}
+	
+	// a component outside of the region, which was placed outside of its rows, is hidden until its rows are placed.
+	// so a component is never visible in other rows and scrolling only needs to place the rows entering the region
+	private static boolean displaced(Component comp, int ymin, int ymax) {
+		int y = comp.getY();
+		int height = comp.getHeight();
+		if ( height > 0 && comp.getWidth() > 0 && ( y < ymin || y + height > ymax ) ) {
+			comp.setBounds(0, 0, 0, 0);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * lays out the view of a {@link JViewport} again when the {@link JViewport} is scrolled
+	 * <p>
+	 * the listener removes itself when the view is no longer shown by the {@link JViewport} or no longer uses the
+	 * {@link PatGridLayout} in the {@link #virtualized(boolean) virtualized} mode
+	 */
+	private static final class ViewportListener implements ChangeListener {
+		
+		private final PatGridLayout layout;
+		private final JViewport     viewport;
+		private final Container     view;
+		
+		private ViewportListener(PatGridLayout layout, JViewport viewport, Container view) {
+			this.layout = layout;
+			this.viewport = viewport;
+			this.view = view;
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public void stateChanged(@SuppressWarnings( "unused" ) ChangeEvent e) {
+			if ( !this.layout.virtualized || this.viewport.getView() != this.view
+				|| this.view.getLayout() != this.layout ) {
+				this.viewport.removeChangeListener(this);
+				ContainerState state = this.layout.states.get(this.view);
+				if ( state != null && state.viewportListener == this ) {
+					state.viewportListener = null;
+				}
+			} else {
+				// also an invalid view, placing the components outside of a validation invalidates it. scrolled lays
+				// out the complete view when its sizes are no longer valid
+				this.layout.scrolled(this.view, this.viewport);
 			}
 		}
+		
+	}
+	
+	/**
+	 * sets the bounds of the component, when they are not already set
+	 * <p>
+	 * when the size of a {@link Container} changes, it {@link Container#invalidate() invalidates} itself and thus
+	 * its layout. while the components are placed the state of the parent is marked as placing, so the layout of a
+	 * nested {@link Container} knows that its sizes are still valid in the current epoch (see
+	 * {@link #invalidateLayout(Container)})
+	 * 
+	 * @param comp   the component
+	 * @param x      the x coordinate
+	 * @param y      the y coordinate
+	 * @param width  the width
+	 * @param height the height
+	 * 
+	 * @return {@code true} if the bounds were changed
+	 */
+	private static boolean setBounds(Component comp, int x, int y, int width, int height) {
+		if ( comp.getX() == x && comp.getY() == y && comp.getWidth() == width && comp.getHeight() == height ) {
+			return false;
+		}
+		comp.setBounds(x, y, width, height);
+		return true;
+	}
+	
+	// adds the rectangle to the dirty region, empty rectangles are not painted and thus ignored
+	private static Rectangle dirty(Rectangle dirty, int x, int y, int width, int height) {
+		if ( width <= 0 || height <= 0 ) {
+			return dirty;
+		}
+		if ( dirty == null ) {
+			return new Rectangle(x, y, width, height);
+		}
+		int x2 = Math.max(dirty.x + dirty.width, x + width);
+		int y2 = Math.max(dirty.y + dirty.height, y + height);
+		dirty.x = Math.min(dirty.x, x);
+		dirty.y = Math.min(dirty.y, y);
+		dirty.width = x2 - dirty.x;
+		dirty.height = y2 - dirty.y;
+		return dirty;
 	}
 	
-	private static void check(int[] arr, int i, BlockInfo inf, int empty) {
-		if ( arr[i] > inf.max + empty ) {
-			arr[i] = inf.max + empty;
-		} else if ( arr[i] < inf.min + empty ) {
-			arr[i] = inf.min + empty;
+	private static long bothSizes(Component comp, CompInfo inf, FillMode widthMode, FillMode heightMode,
+		SizeHints hints, int maxWidth, int maxHeight) {
+		if ( heightMode instanceof AdvancedFillMode afm ) {
+			long sizes = afm.packedSizes(comp, inf, hints, maxWidth, maxHeight, false, widthMode);
+			if ( sizes != AdvancedFillMode.NO_SIZES ) {
+				return sizes;
+			}
 		}
+		if ( widthMode instanceof AdvancedFillMode afm ) {
+			return afm.packedSizes(comp, inf, hints, maxWidth, maxHeight, true, heightMode);
+		}
+		return AdvancedFillMode.NO_SIZES;
 	}
 	
 	private static int calcPos(int space, int usedSpace, int basePosition, float align) {
 		if ( space == usedSpace || align == 0f ) return basePosition;
 		int free = space - usedSpace;
-		free *= align;
+		free = (int) ( free * align );
 		return basePosition + free;
 	}
 	
@@ -1031,69 +2428,20 @@ public class PatGridLayout implements LayoutManager2 {
 		return maxHeight;
 	}
 	
-	private static void adjust(int[] yminpos, int[] ymaxpos, int totalHeight) {
-		final int yBlockCount = yminpos.length - 1;
-		while ( true ) {
-			if ( totalHeight <= yminpos[yBlockCount] ) return;
-			int diff = 0;
-			for (int y = 1; y <= yBlockCount; y++) {
-				int ymin = yminpos[y] - yminpos[y - 1];
-				int ymax = ymaxpos[y] - ymaxpos[y - 1];
-				if ( ymin < ymax ) {
-					diff += ymax - ymin;
-				}
-			}
-			if ( diff == 0 ) return;
-			if ( yminpos[yBlockCount] + diff <= totalHeight ) {
-				for (int y = 1, add = 0; y <= yBlockCount; y++) {
-					int ymin = yminpos[y] - yminpos[y - 1];
-					int ymax = ymaxpos[y] - ymaxpos[y - 1];
-					if ( ymin < ymax ) {
-						add += ymax - ymin;// NOSONAR
-					}
-					yminpos[y] += add;
-				}
-				return;
-			} else {
-				int growPot = totalHeight - yminpos[yBlockCount];
-				int growPoitCnt = 0;
-				int maxGrow = Integer.MAX_VALUE;
-				for (int y = 1; y <= yBlockCount; y++) {
-					int ymin = yminpos[y] - yminpos[y - 1];
-					int ymax = ymaxpos[y] - ymaxpos[y - 1];
-					if ( ymin < ymax ) {
-						growPoitCnt++;
-						maxGrow = Math.min(maxGrow, ymax - ymin);
-					}
-				}
-				int grow = Math.max(growPot / growPoitCnt, 1);
-				for (int y = 1, add = 0; y <= yBlockCount; y++) {
-					int ymin = yminpos[y] - yminpos[y - 1];
-					int ymax = ymaxpos[y] - ymaxpos[y - 1];
-					if ( ymin < ymax ) {
-						add += Math.min(ymax - ymin, grow);// NOSONAR
-					}
-					yminpos[y] += add;
-				}
-				if ( grow <= maxGrow ) {
-					return;
-				}
-			}
-		}
-	}
-	
 	/** {@inheritDoc} */
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + this.comps.hashCode();
+		result = prime * result + constraints().hashCode();
 		result = prime * result + Arrays.hashCode(this.xafterblocks);
 		result = prime * result + Arrays.hashCode(this.xblocks);
 		result = prime * result + this.xempty;
 		result = prime * result + Arrays.hashCode(this.yafterblocks);
 		result = prime * result + Arrays.hashCode(this.yblocks);
 		result = prime * result + this.yempty;
+		result = prime * result + ( this.virtualized ? 1231 : 1237 );
+		result = prime * result + this.overscan;
 		return result;
 	}
 	
@@ -1103,13 +2451,24 @@ public class PatGridLayout implements LayoutManager2 {
 		if ( this == obj ) { return true; }
 		if ( !( obj instanceof PatGridLayout ) ) { return false; }
 		PatGridLayout other = (PatGridLayout) obj;
-		if ( !this.comps.equals(other.comps) ) { return false; }
+		if ( !constraints().equals(other.constraints()) ) { return false; }
 		if ( !Arrays.equals(this.xafterblocks, other.xafterblocks) ) { return false; }
 		if ( !Arrays.equals(this.xblocks, other.xblocks) ) { return false; }
 		if ( this.xempty != other.xempty ) { return false; }
 		if ( !Arrays.equals(this.yafterblocks, other.yafterblocks) ) { return false; }
 		if ( !Arrays.equals(this.yblocks, other.yblocks) ) { return false; }
-		return this.yempty == other.yempty;
+		if ( this.yempty != other.yempty ) { return false; }
+		if ( this.virtualized != other.virtualized ) { return false; }
+		return this.overscan == other.overscan;
+	}
+	
+	private Map<Component,CompInfo> constraints() {
+		Map<Component,CompInfo> result = new HashMap<>();
+		this.pending.forEach(result::put);
+		for (ContainerState state : this.states.values()) {
+			state.comps.forEach(result::put);
+		}
+		return result;
 	}
 	
 	/** {@inheritDoc} */
@@ -1128,6 +2487,10 @@ public class PatGridLayout implements LayoutManager2 {
 		builder.append(Arrays.toString(this.xafterblocks));
 		builder.append(", yafterblocks=");
 		builder.append(Arrays.toString(this.yafterblocks));
+		builder.append(", virtualized=");
+		builder.append(this.virtualized);
+		builder.append(", overscan=");
+		builder.append(this.overscan);
 		return builder.append(']').toString();
 	}
 	
@@ -0,0 +1,239 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+/**
+ * a simple scanner for the texts parsed by {@link CompInfo#parse(CharSequence)} and
+ * {@link BlockInfo#parseArr(String)}
+ * <p>
+ * the scanner works directly on the {@link CharSequence}, numbers and words are read in place without creating
+ * intermediate {@link String strings}. all errors are reported with an {@link IllegalArgumentException}, which
+ * contains the index of the invalid character
+ */
+class TextScanner {
+	
+	final CharSequence str;
+	int                end;
+	int                pos;
+	
+	/**
+	 * creates a new scanner for the given range of the text
+	 * 
+	 * @param str   the text
+	 * @param start the start of the range (inclusive)
+	 * @param end   the end of the range (exclusive)
+	 */
+	TextScanner(CharSequence str, int start, int end) {
+		this.str = str;
+		this.pos = start;
+		this.end = end;
+	}
+	
+	/**
+	 * skips the leading and trailing {@link Character#isWhitespace(char) whitespace} of the range (like
+	 * {@link String#strip()})
+	 */
+	final void strip() {
+		while ( this.pos < this.end && Character.isWhitespace(this.str.charAt(this.pos)) ) {
+			this.pos++;
+		}
+		while ( this.end > this.pos && Character.isWhitespace(this.str.charAt(this.end - 1)) ) {
+			this.end--;
+		}
+	}
+	
+	/**
+	 * skips the leading and trailing characters below or equal to {@code ' '} of the range (like
+	 * {@link String#trim()})
+	 */
+	final void trim() {
+		while ( this.pos < this.end && this.str.charAt(this.pos) <= ' ' ) {
+			this.pos++;
+		}
+		while ( this.end > this.pos && this.str.charAt(this.end - 1) <= ' ' ) {
+			this.end--;
+		}
+	}
+	
+	final boolean atEnd() {
+		return this.pos >= this.end;
+	}
+	
+	final boolean at(char c) {
+		return this.pos < this.end && this.str.charAt(this.pos) == c;
+	}
+	
+	// NUMBER: 0x[0-9a-f]+, 0b[01]+, 0[0-7]* or [1-9][0-9]*
+	final int number() {
+		int start = this.pos;
+		if ( start >= this.end ) {
+			throw error(start, "number");
+		}
+		char c = this.str.charAt(start);
+		if ( c == '0' ) {
+			if ( start + 1 < this.end ) {
+				switch ( this.str.charAt(start + 1) ) {
+				case 'x', 'X':
+					this.pos += 2;
+					return digits(start, 16);
+				case 'b', 'B':
+					this.pos += 2;
+					return digits(start, 2);
+				default:
+				}
+			}
+			return digits(start, 8);
+		} else if ( c >= '1' && c <= '9' ) {
+			return digits(start, 10);
+		}
+		throw error(start, "number");
+	}
+	
+	private int digits(int start, int radix) {
+		int digitsStart = this.pos;
+		long val = 0L;
+		for (; this.pos < this.end; this.pos++) {
+			char c = this.str.charAt(this.pos);
+			int d = c < 0x80 ? Character.digit(c, radix) : -1;
+			if ( d < 0 ) break;
+			val = val * radix + d;
+			if ( val > Integer.MAX_VALUE ) {
+				throw new NumberFormatException("number too large at index " + start + " text: '" + this.str + "'");
+			}
+		}
+		if ( this.pos == digitsStart ) {
+			throw error(this.pos, "digit");
+		}
+		return (int) val;
+	}
+	
+	// FP-NUMBER: NUMBER, [.][0-9]+ or [0-9]+[.][0-9]*
+	final float fpNumber() {
+		int start = this.pos;
+		while ( this.pos < this.end && isDigit(this.str.charAt(this.pos)) ) {
+			this.pos++;
+		}
+		if ( this.pos < this.end && this.str.charAt(this.pos) == '.' ) {
+			this.pos++;
+			int fracStart = this.pos;
+			while ( this.pos < this.end && isDigit(this.str.charAt(this.pos)) ) {
+				this.pos++;
+			}
+			if ( fracStart == start + 1 && this.pos == fracStart ) {
+				throw error(this.pos, "digit");
+			}
+			return Float.parseFloat(this.str.subSequence(start, this.pos).toString());
+		}
+		if ( this.pos > start && this.str.charAt(start) != '0' ) {
+			return Float.parseFloat(this.str.subSequence(start, this.pos).toString());
+		}
+		this.pos = start;
+		return number();
+	}
+	
+	/**
+	 * skips a word (ASCII letters and {@code '-'})
+	 * 
+	 * @return the end of the word
+	 */
+	final int word() {
+		while ( isLetter() || at('-') ) {
+			this.pos++;
+		}
+		return this.pos;
+	}
+	
+	/**
+	 * checks if the given range is the given word (ignoring the case)
+	 * 
+	 * @param start         the start of the range
+	 * @param wordEnd       the end of the range
+	 * @param lowerCaseWord the word in lower case
+	 * 
+	 * @return {@code true} if the range is the given word
+	 */
+	final boolean is(int start, int wordEnd, String lowerCaseWord) {
+		int len = lowerCaseWord.length();
+		if ( wordEnd - start != len ) {
+			return false;
+		}
+		for (int i = 0; i < len; i++) {
+			char c = this.str.charAt(start + i);
+			if ( c >= 'A' && c <= 'Z' ) c += 'a' - 'A';
+			if ( c != lowerCaseWord.charAt(i) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	final boolean isLetter() {
+		if ( this.pos >= this.end ) {
+			return false;
+		}
+		char c = this.str.charAt(this.pos);
+		return ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' );
+	}
+	
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+	
+	// the whitespace of the regex class \s
+	final boolean isWhitespace() {
+		if ( this.pos >= this.end ) {
+			return false;
+		}
+		return switch ( this.str.charAt(this.pos) ) {
+		case ' ', '\t', '\n', '\u000B', '\f', '\r' -> true;
+		default -> false;
+		};
+	}
+	
+	final void skipWhitespace() {
+		while ( isWhitespace() ) {
+			this.pos++;
+		}
+	}
+	
+	final void whitespace() {
+		if ( !isWhitespace() ) {
+			throw error(this.pos, "whitespace");
+		}
+		skipWhitespace();
+	}
+	
+	final void expect(char c) {
+		if ( !at(c) ) {
+			throw error(this.pos, "'" + c + "'");
+		}
+		this.pos++;
+	}
+	
+	final void expectEnd() {
+		if ( this.pos < this.end ) {
+			throw error(this.pos, "end of input");
+		}
+	}
+	
+	final IllegalArgumentException error(int index, String expected) {
+		String found = index < this.end ? "'" + this.str.charAt(index) + "'" : "end of input";
+		return new IllegalArgumentException("invalid input: found " + found + " at index " + index + " expected "
+			+ expected + " text: '" + this.str + "'");
+	}
+	
+}
@@ -0,0 +1,163 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * compares the sorted single pass of {@link BlockSize#positions(int)} with the round based loop it replaced
+ */
+class AdjustTest {
+	
+	private static final int RUNS = 20_000;
+	
+	@Test
+	void denseAxis() {
+		Random rnd = new Random(7L);
+		for (int run = 0; run < RUNS; run++) {
+			int cnt = 1 + rnd.nextInt(12);
+			BlockInfo[] blocks = new BlockInfo[cnt];
+			for (int i = 0; i < cnt; i++) {
+				blocks[i] = block(rnd);
+			}
+			int[] starts = new int[cnt];
+			int[] lengths = new int[cnt];
+			for (int i = 0; i < cnt; i++) {
+				starts[i] = i;
+				lengths[i] = 1;
+			}
+			check(rnd, new BlockSize.Table(blocks, new BlockInfo[0], rnd.nextInt(4), 'x'), starts, lengths);
+		}
+	}
+	
+	@Test
+	void sparseAxis() {
+		Random rnd = new Random(13L);
+		for (int run = 0; run < RUNS; run++) {
+			BlockInfo[] blocks = new BlockInfo[rnd.nextInt(4)];
+			for (int i = 0; i < blocks.length; i++) {
+				blocks[i] = block(rnd);
+			}
+			BlockInfo[] after = new BlockInfo[1 + rnd.nextInt(3)];
+			for (int i = 0; i < after.length; i++) {
+				after[i] = block(rnd);
+			}
+			int cnt = 1 + rnd.nextInt(3);
+			int[] starts = new int[cnt];
+			int[] lengths = new int[cnt];
+			for (int i = 0; i < cnt; i++) {
+				starts[i] = rnd.nextInt(500);
+				lengths[i] = 1 + rnd.nextInt(3);
+			}
+			check(rnd, new BlockSize.Table(blocks, after, rnd.nextInt(4), 'y'), starts, lengths);
+		}
+	}
+	
+	private static BlockInfo block(Random rnd) {
+		int min = rnd.nextInt(20);
+		switch ( rnd.nextInt(4) ) {
+		case 0:
+			return new BlockInfo(min, min);
+		case 1:
+			return new BlockInfo(min, BlockInfo.MAX_SIZE);
+		default:
+			return new BlockInfo(min, min + rnd.nextInt(40));
+		}
+	}
+	
+	private static void check(Random rnd, BlockSize.Table table, int[] starts, int[] lengths) {
+		BlockSize bs = new BlockSize(table, 1, starts, lengths, starts.length);
+		int[] s = bs.sizes[0];
+		for (int i = 0; i < bs.entryCount; i++) {
+			s[i] += rnd.nextInt(bs.maxs[i] - bs.mins[i] + 1 > 0 ? Math.min(bs.maxs[i] - bs.mins[i] + 1, 30) : 1);
+		}
+		int total = bs.size(0) + rnd.nextInt(Math.max(1, bs.size(0) + 50)) - 10;
+		int[] expected = positions(bs, total);
+		int[] actual = bs.positions(total);
+		assertArrayEquals(expected, actual, () -> bs + " total=" + total);
+	}
+	
+	private static int[] positions(BlockSize bs, int total) {
+		int[] s = Arrays.copyOf(bs.sizes[0], bs.entryCount);
+		adjust(bs, s, total);
+		int[] pos = new int[bs.segmentCount + 1];
+		int p = bs.empty;
+		pos[0] = p;
+		for (int seg = 0; seg < bs.segmentCount; seg++) {
+			for (int i = bs.entries[seg]; i < bs.entries[seg + 1]; i++) {
+				p += bs.weights[i] * s[i];
+			}
+			pos[seg + 1] = p;
+		}
+		return pos;
+	}
+	
+	/**
+	 * the round based loop, which was used before the sorted single pass
+	 */
+	private static void adjust(BlockSize bs, int[] s, int total) {
+		final int[] w = bs.weights;
+		final int[] max = bs.maxs;
+		final int cnt = bs.entryCount;
+		long free = (long) total - bs.empty;
+		for (int i = cnt; --i >= 0;) {
+			free -= (long) w[i] * s[i];
+		}
+		while ( free > 0L ) {
+			long diff = 0L;
+			long growCnt = 0L;
+			int maxGrow = Integer.MAX_VALUE;
+			for (int i = cnt; --i >= 0;) {
+				int room = max[i] - s[i];
+				if ( room > 0 ) {
+					diff += (long) w[i] * room;
+					growCnt += w[i];
+					maxGrow = Math.min(maxGrow, room);
+				}
+			}
+			if ( diff == 0L ) {
+				return;
+			}
+			if ( diff <= free ) {
+				for (int i = cnt; --i >= 0;) {
+					if ( max[i] > s[i] ) {
+						s[i] = max[i];
+					}
+				}
+				return;
+			}
+			int grow = (int) Math.max(free / growCnt, 1L);
+			for (int i = cnt; --i >= 0;) {
+				int room = max[i] - s[i];
+				if ( room > 0 ) {
+					int add = Math.min(room, grow);
+					s[i] += add;
+					free -= (long) w[i] * add;
+				}
+			}
+			if ( grow <= maxGrow ) {
+				return;
+			}
+		}
+	}
+	
+}
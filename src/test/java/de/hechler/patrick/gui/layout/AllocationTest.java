@@ -0,0 +1,83 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.awt.Container;
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks that laying out a solved {@link Container} again does not allocate
+ */
+class AllocationTest {
+	
+	private static final int WARMUP = 20_000;
+	private static final int LAYOUTS = 1_000;
+	private static final int ROUNDS = 5;
+	
+	@Test
+	void steadyStateRelayout() {
+		com.sun.management.ThreadMXBean mx = threadBean();
+		long tid = Thread.currentThread().threadId();
+		PatGridLayout layout = new PatGridLayout(2, 2, "[grow]", "[grow]");
+		layout.xAfterRepeatBlocks(BlockInfo.parseArr("[grow]"));
+		layout.yAfterRepeatBlocks(BlockInfo.parseArr("[grow]"));
+		Container c = new Container();
+		c.setLayout(layout);
+		for (int i = 0; i < 200; i++) {
+			FillMode width = i % 2 == 0 ? FillMode.FILL_MAXIMUM : FillMode.fillMode(0.5f, FillMode.FILL_PREFERRED);
+			c.add(new TestComponent(20, 10, 30, 15, 1000, 1000), new CompInfo(i % 10, i / 10, i % 3 == 0 ? 2 : 1, 1, 0.5f, 0.5f, width,
+				FillMode.FILL_PREFERRED));
+		}
+		long resized = Long.MAX_VALUE;
+		long same = Long.MAX_VALUE;
+		// the minimum of some rounds, so a single round with a late compilation does not fail the test
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int i = 0; i < WARMUP; i++) {
+				c.setSize(400 + ( i & 1 ), 300);
+				layout.layoutContainer(c);
+			}
+			long before = mx.getThreadAllocatedBytes(tid);
+			for (int i = 0; i < LAYOUTS; i++) {
+				c.setSize(400 + ( i & 1 ), 300);
+				layout.layoutContainer(c);
+			}
+			resized = Math.min(resized, mx.getThreadAllocatedBytes(tid) - before);
+			before = mx.getThreadAllocatedBytes(tid);
+			for (int i = 0; i < LAYOUTS; i++) {
+				layout.layoutContainer(c);
+			}
+			same = Math.min(same, mx.getThreadAllocatedBytes(tid) - before);
+		}
+		assertEquals(1, layout.solveCount(c));
+		assertEquals(0L, resized, "bytes allocated by relayouts with a new size");
+		assertEquals(0L, same, "bytes allocated by relayouts with the same size");
+	}
+	
+	private static com.sun.management.ThreadMXBean threadBean() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(mx.isThreadAllocatedMemorySupported());
+		mx.setThreadAllocatedMemoryEnabled(true);
+		return mx;
+	}
+	
+}
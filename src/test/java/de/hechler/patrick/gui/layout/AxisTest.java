@@ -0,0 +1,106 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.Container;
+import java.awt.Dimension;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks that the axes are solved independently
+ */
+class AxisTest {
+	
+	@Test
+	void xBlocksDoNotTouchY() {
+		PatGridLayout layout = new PatGridLayout(0, 0);
+		Container c = new Container();
+		c.setLayout(layout);
+		TestComponent.Counter counter = new TestComponent.Counter();
+		for (int i = 0; i < 6; i++) {
+			c.add(TestComponent.fixed(10, 10).count(counter), ( i % 3 ) + " " + ( i / 3 ));
+		}
+		layout.minimumLayoutSize(c);
+		BlockSize x = layout.sizes(c, true);
+		BlockSize y = layout.sizes(c, false);
+		int solves = layout.solveCount(c);
+		counter.reset();
+		
+		layout.xEmpty(4);
+		assertEquals(new Dimension(4 + 3 * 14, 20), layout.minimumLayoutSize(c));
+		assertEquals(0, counter.queries);
+		assertEquals(solves + 1, layout.solveCount(c));
+		assertNotSame(x, layout.sizes(c, true));
+		assertSame(y, layout.sizes(c, false));
+	}
+	
+	@Test
+	void yBlocksDoNotTouchX() {
+		PatGridLayout layout = new PatGridLayout(0, 0);
+		Container c = new Container();
+		c.setLayout(layout);
+		TestComponent.Counter counter = new TestComponent.Counter();
+		for (int i = 0; i < 6; i++) {
+			c.add(TestComponent.fixed(10, 10).count(counter), ( i % 3 ) + " " + ( i / 3 ));
+		}
+		layout.minimumLayoutSize(c);
+		BlockSize x = layout.sizes(c, true);
+		counter.reset();
+		
+		layout.yBlocks(new BlockInfo[] { new BlockInfo(15, 15) });
+		assertEquals(new Dimension(30, 25), layout.minimumLayoutSize(c));
+		assertEquals(0, counter.queries);
+		assertSame(x, layout.sizes(c, true));
+	}
+	
+	@Test
+	void invalidateKeepsTheBlocks() {
+		BlockInfo block = new BlockInfo(5, 5);
+		PatGridLayout layout = new PatGridLayout(0, 0);
+		layout.xBlocks(new BlockInfo[] { block });
+		Container a = new Container();
+		a.setLayout(layout);
+		a.add(TestComponent.fixed(10, 10), "0 0");
+		Container b = new Container();
+		b.setLayout(layout);
+		b.add(TestComponent.fixed(10, 10), "0 0");
+		assertEquals(new Dimension(5, 10), layout.minimumLayoutSize(a));
+		layout.minimumLayoutSize(b);
+		BlockSize.Table x = layout.sizes(a, true).table;
+		BlockSize.Table y = layout.sizes(a, false).table;
+		
+		layout.invalidateLayout(a);
+		layout.minimumLayoutSize(a);
+		assertSame(x, layout.sizes(a, true).table);
+		assertSame(y, layout.sizes(a, false).table);
+		assertSame(x, layout.sizes(b, true).table);
+		
+		// a modified BlockInfo is noticed by all containers
+		block.set(7, 7);
+		layout.invalidateLayout(a);
+		assertEquals(new Dimension(7, 10), layout.minimumLayoutSize(a));
+		assertEquals(new Dimension(7, 10), layout.minimumLayoutSize(b));
+		assertNotSame(x, layout.sizes(b, true).table);
+		assertSame(y, layout.sizes(b, false).table);
+	}
+	
+}
@@ -0,0 +1,134 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * checks the block parser of {@link BlockInfo#parseArr(String)} and the block strings of {@link PatGridLayout}
+ */
+class BlockInfoTest {
+	
+	private static final int MAX = BlockInfo.MAX_SIZE;
+	
+	static Stream<Arguments> valid() {
+		return Stream.of(//
+			Arguments.of("", new int[0]), //
+			Arguments.of(" \t", new int[0]), //
+			Arguments.of("[grow]", new int[] { 0, MAX }), //
+			Arguments.of("[ GROW ]", new int[] { 0, MAX }), //
+			Arguments.of("[1, grow]", new int[] { 1, MAX }), //
+			Arguments.of("[010 Grow]", new int[] { 8, MAX }), //
+			Arguments.of("[5px]", new int[] { 5, 5 }), //
+			Arguments.of("[5PX]", new int[] { 5, 5 }), //
+			Arguments.of("[0,0\t]", new int[] { 0, 0 }), //
+			Arguments.of("[0,0]", new int[] { 0, 0 }), //
+			Arguments.of("[0 0]", new int[] { 0, 0 }), //
+			Arguments.of("[ 3 , 4 ]", new int[] { 3, 4 }), //
+			Arguments.of("[0b11, 0x10px]", new int[] { 3, 16 }), //
+			Arguments.of("[20000000]", new int[] { MAX, MAX }), //
+			Arguments.of(" [1] \t[2,3]\n[grow]", new int[] { 1, 1, 2, 3, 0, MAX }) //
+		);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("valid")
+	void parsesValidBlocks(String text, int[] minMax) {
+		assertArrayEquals(minMax, minMax(BlockInfo.parseArr(text)));
+		// the same blocks in the middle of a larger text
+		StringBuilder b = new StringBuilder("x:").append(text).append(":y");
+		assertArrayEquals(minMax, minMax(BlockInfo.parseArr(b, 2, b.length() - 2)));
+	}
+	
+	static Stream<Arguments> invalid() {
+		return Stream.of(//
+			Arguments.of("5", 0), //
+			Arguments.of("[]", 1), //
+			Arguments.of("[x]", 1), //
+			Arguments.of("[5,]", 3), //
+			Arguments.of("[5pt]", 2), //
+			Arguments.of("[08]", 2), //
+			Arguments.of("[1 2 3]", 5), //
+			Arguments.of("[grow,1]", 5), //
+			Arguments.of("[1", 2), //
+			Arguments.of("[1]x", 3), //
+			Arguments.of("[1][", 4) //
+		);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("invalid")
+	void reportsTheIndexOfInvalidBlocks(String text, int index) {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> BlockInfo.parseArr(text));
+		assertTrue(e.getMessage().contains(" at index " + index + " "), e.getMessage());
+		// the index is relative to the complete text, not to the parsed range
+		StringBuilder b = new StringBuilder("[0]:").append(text);
+		e = assertThrows(IllegalArgumentException.class, () -> BlockInfo.parseArr(b, 4, b.length()));
+		assertTrue(e.getMessage().contains(" at index " + ( index + 4 ) + " "), e.getMessage());
+	}
+	
+	@Test
+	void maximumBelowMinimumIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> BlockInfo.parseArr("[3,2]"));
+	}
+	
+	@Test
+	void emptyTextsShareTheEmptyArray() {
+		assertSame(PatGridLayout.EMPTY_BLOCK_INFOS, BlockInfo.parseArr(""));
+		assertSame(PatGridLayout.EMPTY_BLOCK_INFOS, BlockInfo.parseArr("[1]", 1, 1));
+	}
+	
+	@Test
+	void layoutSplitsAtTheColon() {
+		PatGridLayout layout = new PatGridLayout(2, 3, "[1][2, 3]:[grow]", "[4]");
+		assertEquals(2, layout.xEmpty());
+		assertEquals(3, layout.yEmpty());
+		assertArrayEquals(new int[] { 1, 1, 2, 3 }, minMax(layout.xBlocks()));
+		assertArrayEquals(new int[] { 0, MAX }, minMax(layout.xAfterRepeatBlocks()));
+		assertArrayEquals(new int[] { 4, 4 }, minMax(layout.yBlocks()));
+		assertArrayEquals(new int[0], minMax(layout.yAfterRepeatBlocks()));
+		layout = new PatGridLayout(":[5]", "[6]:");
+		assertArrayEquals(new int[0], minMax(layout.xBlocks()));
+		assertArrayEquals(new int[] { 5, 5 }, minMax(layout.xAfterRepeatBlocks()));
+		assertArrayEquals(new int[] { 6, 6 }, minMax(layout.yBlocks()));
+		assertArrayEquals(new int[0], minMax(layout.yAfterRepeatBlocks()));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+			() -> new PatGridLayout("[1]:[x]", "[1]"));
+		assertTrue(e.getMessage().contains(" at index 5 "), e.getMessage());
+	}
+	
+	private static int[] minMax(BlockInfo[] blocks) {
+		int[] result = new int[blocks.length << 1];
+		for (int i = 0; i < blocks.length; i++) {
+			result[i << 1] = blocks[i].min();
+			result[( i << 1 ) + 1] = blocks[i].max();
+		}
+		return result;
+	}
+	
+}
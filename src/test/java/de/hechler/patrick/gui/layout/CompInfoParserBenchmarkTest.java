@@ -0,0 +1,106 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * compares the speed of {@link CompInfo#parse(String)} with the regex, which was used before the parser
+ * <p>
+ * this test is only executed with the {@code benchmark} profile ({@code mvn test -Pbenchmark})
+ */
+@Tag("benchmark")
+class CompInfoParserBenchmarkTest {
+	
+	private static final String NUMBER    = "(0x[0-9a-f]+|0b[01]+|0[0-7]*|[1-9][0-9]*)";
+	private static final String FP_NUMBER = "(" + NUMBER + "|[.][0-9]+|[0-9]+[.][0-9]*)";
+	private static final String COMMA     = "\\s*,\\s*";
+	private static final String FM_OPTS   = "complete|full|max(imum)?|pref(erred)?|min(imum)?";
+	private static final String FM_MUL    = "\\s*[*]\\s*" + FP_NUMBER;
+	
+	// the COMP-INFO regex of the replaced implementation
+	private static final Pattern P_FULL = Pattern.compile(//
+		"(?<position>" + NUMBER + "\\s+" + NUMBER + ")" //
+			+ "(?<sizes>\\s+" + NUMBER + "\\s+" + NUMBER + ")?" //
+			+ "(?<xAlign>" + COMMA + "(xalign\\s*=\\s*)?(" + FP_NUMBER + "|left|mid|right))?" //
+			+ "(?<yAlign>" + COMMA + "(yalign\\s*=\\s*)?(" + FP_NUMBER + "|top|mid|bottom))?" //
+			+ "(?<fillWidth>" + COMMA + "(fill-width\\s*=\\s*)?(?<fillWidthOpts>" + FM_OPTS + ")" //
+			+ "(?<fillWidthMul>" + FM_MUL + ")?)?" //
+			+ "(?<fillHeight>" + COMMA + "(fill-height\\s*=\\s*)?(?<fillHeightOpts>" + FM_OPTS + ")" //
+			+ "(?<fillHeightMul>" + FM_MUL + ")?)?", //
+		Pattern.CASE_INSENSITIVE);
+	
+	private static final String[] INPUTS = { //
+		"0 0", //
+		"1 2 3 4", //
+		"0 0, mid, mid", //
+		"2 5, right, top, pref, max", //
+		"0 1, xalign=mid, fill-width=full*0.5", //
+		"0x10 010 2 1, left, bottom, min, fill-height = preferred", //
+	};
+	
+	private static final int ROUNDS     = 7;
+	private static final int ITERATIONS = 200_000;
+	
+	@Test
+	void parserIsTenTimesFasterThanTheRegex() {
+		long parser = Long.MAX_VALUE;
+		long regex = Long.MAX_VALUE;
+		int sink = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				sink += CompInfo.parse(INPUTS[i % INPUTS.length]).width();
+			}
+			long mid = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				sink += regex(INPUTS[i % INPUTS.length]);
+			}
+			long end = System.nanoTime();
+			parser = Math.min(parser, mid - start);
+			regex = Math.min(regex, end - mid);
+		}
+		double speedup = regex / (double) parser;
+		System.out.printf("parser: %d ns/op regex: %d ns/op speedup: %.1f (%d)%n", parser / ITERATIONS,
+			regex / ITERATIONS, speedup, sink);
+		assertTrue(speedup >= 10d, "speedup: " + speedup);
+	}
+	
+	// only the matching and the group extraction of the replaced implementation, without converting the groups
+	private static int regex(String str) {
+		Matcher matcher = P_FULL.matcher(str.strip());
+		if ( !matcher.matches() ) {
+			throw new IllegalArgumentException(str);
+		}
+		int result = matcher.group("position").split("\\s+").length;
+		String[] names = { "sizes", "xAlign", "yAlign", "fillWidth", "fillWidthMul", "fillHeight", "fillHeightMul" };
+		for (String name : names) {
+			String group = matcher.group(matcher.namedGroups().get(name).intValue());
+			if ( group != null && !( group = group.strip() ).isEmpty() ) {
+				result += group.length();
+			}
+		}
+		return result;
+	}
+	
+}
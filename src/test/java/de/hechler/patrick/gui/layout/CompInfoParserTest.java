@@ -0,0 +1,125 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * checks the {@code COMP-INFO} parser of {@link CompInfo#parse(CharSequence)}
+ */
+class CompInfoParserTest {
+	
+	private static final FillMode MAX  = FillMode.FILL_MAXIMUM;
+	private static final FillMode PREF = FillMode.FILL_PREFERRED;
+	private static final FillMode MIN  = FillMode.FILL_MINIMUM;
+	private static final FillMode FULL = FillMode.FILL_COMPLETLY;
+	
+	static Stream<Arguments> valid() {
+		return Stream.of(//
+			// numbers
+			valid("0 0", 0, 0, 1, 1, 0f, 0f, MAX, MAX), //
+			valid("12 3", 12, 3, 1, 1, 0f, 0f, MAX, MAX), //
+			valid("0x1F 0b101", 31, 5, 1, 1, 0f, 0f, MAX, MAX), //
+			valid("0X1f 0B11", 31, 3, 1, 1, 0f, 0f, MAX, MAX), //
+			valid("017 00", 15, 0, 1, 1, 0f, 0f, MAX, MAX), //
+			valid("1 2 0x10 010", 1, 2, 16, 8, 0f, 0f, MAX, MAX), //
+			valid(" \t1\n2  3\t4 ", 1, 2, 3, 4, 0f, 0f, MAX, MAX), //
+			valid("0 0 , mid", 0, 0, 1, 1, 0.5f, 0f, MAX, MAX), //
+			// alignments
+			valid("0 0, 0.5", 0, 0, 1, 1, 0.5f, 0f, MAX, MAX), //
+			valid("0 0, .25, 1.", 0, 0, 1, 1, 0.25f, 1f, MAX, MAX), //
+			valid("0 0, 1, 0x1", 0, 0, 1, 1, 1f, 1f, MAX, MAX), //
+			valid("0 0, 0b1,0", 0, 0, 1, 1, 1f, 0f, MAX, MAX), //
+			valid("0 0, right, bottom", 0, 0, 1, 1, 1f, 1f, MAX, MAX), //
+			valid("0 0, top", 0, 0, 1, 1, 0f, 0f, MAX, MAX), //
+			valid("0 0, mid, mid", 0, 0, 1, 1, 0.5f, 0.5f, MAX, MAX), //
+			valid("0 0, xalign=right", 0, 0, 1, 1, 1f, 0f, MAX, MAX), //
+			valid("0 0, yalign = 0.75", 0, 0, 1, 1, 0f, 0.75f, MAX, MAX), //
+			valid("0 0, xalign=.5, yalign=bottom", 0, 0, 1, 1, 0.5f, 1f, MAX, MAX), //
+			// fill modes
+			valid("0 0, pref", 0, 0, 1, 1, 0f, 0f, PREF, MAX), //
+			valid("0 0, min, complete", 0, 0, 1, 1, 0f, 0f, MIN, FULL), //
+			valid("0 0, mid, top, maximum, minimum", 0, 0, 1, 1, 0.5f, 0f, MAX, MIN), //
+			valid("0 0, fill-width=preferred", 0, 0, 1, 1, 0f, 0f, PREF, MAX), //
+			valid("0 0, fill-height = min", 0, 0, 1, 1, 0f, 0f, MAX, MIN), //
+			valid("0 0, right, fill-height=full", 0, 0, 1, 1, 1f, 0f, MAX, FULL), //
+			// multipliers
+			valid("0 0, full * 0.5", 0, 0, 1, 1, 0f, 0f, FillMode.fillMode(0.5f, FULL), MAX), //
+			valid("0 0, left, top, full*0.5, pref * 2", 0, 0, 1, 1, 0f, 0f, FillMode.fillMode(0.5f, FULL),
+				FillMode.fillMode(2f, PREF)), //
+			valid("0 0, fill-height=max*.25", 0, 0, 1, 1, 0f, 0f, MAX, FillMode.fillMode(0.25f, MAX)), //
+			// the case is ignored
+			valid("1 2 3 4, MID, Bottom, FULL, Preferred", 1, 2, 3, 4, 0.5f, 1f, FULL, PREF), //
+			valid("0 0, XAlign=Right, FILL-WIDTH=MIN * 2", 0, 0, 1, 1, 1f, 0f, FillMode.fillMode(2f, MIN), MAX) //
+		);
+	}
+	
+	private static Arguments valid(String text, int x, int y, int w, int h, float xAlign, float yAlign,
+		FillMode widthMode, FillMode heightMode) {
+		return Arguments.of(text, CompInfo.of(x, y, w, h, xAlign, yAlign, widthMode, heightMode));
+	}
+	
+	@ParameterizedTest
+	@MethodSource("valid")
+	void parsesValidInput(String text, CompInfo expected) {
+		assertEquals(expected, CompInfo.parse(text));
+		assertEquals(expected, CompInfo.parse(new StringBuilder(text)));
+	}
+	
+	static Stream<Arguments> invalid() {
+		return Stream.of(//
+			Arguments.of("", 0), //
+			Arguments.of("a 0", 0), //
+			Arguments.of("0", 1), //
+			Arguments.of("0,0", 1), //
+			Arguments.of("08 0", 1), //
+			Arguments.of("0x 0", 2), //
+			Arguments.of("0b2 0", 2), //
+			Arguments.of("0x80000000 0", 0), //
+			Arguments.of("0 0 1", 5), //
+			Arguments.of("0 0,", 4), //
+			Arguments.of("0 0, .", 6), //
+			Arguments.of("0 0, up", 5), //
+			Arguments.of("  0 0, up", 7), //
+			Arguments.of("0 0, 0.5, 0.5, 0.5", 15), //
+			Arguments.of("0 0, pref, pref, pref", 17), //
+			Arguments.of("0 0, xalign=up", 12), //
+			Arguments.of("0 0, xalign 1", 12), //
+			Arguments.of("0 0, yalign=left", 12), //
+			Arguments.of("0 0, fill-width=left", 16), //
+			Arguments.of("0 0, full *", 11), //
+			Arguments.of("0 0, pref, xalign=0", 11), //
+			Arguments.of("0 0; mid", 3) //
+		);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("invalid")
+	void reportsTheIndexOfInvalidInput(String text, int index) {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> CompInfo.parse(text));
+		assertTrue(e.getMessage().contains(" at index " + index + " "), e.getMessage());
+	}
+	
+}
@@ -0,0 +1,51 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks the construction of {@link CompInfo} instances
+ */
+class CompInfoTest {
+	
+	@Test
+	void constructorSetsBothAlignments() {
+		CompInfo inf = new CompInfo(1, 2, 0.25f, 0.75f);
+		assertEquals(0.25f, inf.xAlign());
+		assertEquals(0.75f, inf.yAlign());
+	}
+	
+	@Test
+	void internedInstancesAreNotModifiable() {
+		CompInfo a = CompInfo.of(1, 2, 1, 1, 0.5f, 0.5f, FillMode.FILL_MAXIMUM, FillMode.FILL_PREFERRED);
+		CompInfo b = CompInfo.of(1, 2, 1, 1, 0.5f, 0.5f, FillMode.FILL_MAXIMUM, FillMode.FILL_PREFERRED);
+		assertSame(a, b);
+		assertThrows(UnsupportedOperationException.class, () -> a.xAlign(0f));
+		assertThrows(UnsupportedOperationException.class, () -> a.bounds(0, 0, 1, 1));
+		CompInfo c = a.copy();
+		assertFalse(c.isImmutable());
+		c.xAlign(0f);
+		assertEquals(0.5f, b.xAlign());
+	}
+	
+}
@@ -0,0 +1,137 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks that a {@link PatGridLayout} and its {@link CompStore CompStores} do not keep the memory of removed
+ * {@link Component Components} and dropped {@link Container Containers}
+ */
+class CompStoreTest {
+	
+	private static final int CYCLES  = 1_000_000;
+	private static final int ROUND   = 1024;
+	private static final int DROPPED = 16;
+	
+	@Test
+	void containerCycles() throws InterruptedException {
+		PatGridLayout layout = new PatGridLayout();
+		Container[] kept = { new Container(), new Container() };
+		kept[0].setLayout(layout);
+		kept[1].setLayout(layout);
+		// creating a Component is much slower than the layout, so most components are reused
+		Component[] comps = new Component[ROUND];
+		String[] constraints = new String[ROUND];
+		for (int i = 0; i < ROUND; i++) {
+			comps[i] = TestComponent.fixed(10, 10);
+			constraints[i] = ( i & 7 ) + " " + ( i >>> 3 );
+		}
+		List<Reference<?>> released = new ArrayList<>();
+		Container drop = null;
+		int maxCapacity = 0;
+		for (int i = 0; i < CYCLES; i++) {
+			int round = i / ROUND;
+			int index = i % ROUND;
+			if ( index < ROUND - DROPPED ) {
+				// the component is moved from the container of the last round, so it is removed from that container
+				kept[round & 1].add(comps[index], constraints[index]);
+				continue;
+			}
+			if ( drop == null ) {
+				drop = new Container();
+				drop.setLayout(layout);
+			}
+			// the container is dropped together with its components, so they are never removed
+			drop.add(TestComponent.fixed(10, 10), constraints[index]);
+			if ( index == ROUND - 1 ) {
+				layout.minimumLayoutSize(drop);
+				layout.minimumLayoutSize(kept[round & 1]);
+				released.add(new WeakReference<>(drop));
+				released.add(new WeakReference<>(layout.store(drop)));
+				drop = null;
+				maxCapacity = Math.max(maxCapacity, layout.store(kept[round & 1]).capacity());
+				CompStore moved = layout.store(kept[( round & 1 ) ^ 1]);
+				if ( moved != null ) {
+					assertEquals(0, moved.size());
+					assertEquals(8, moved.capacity());
+				}
+			}
+		}
+		drop = null;
+		// the states of collected containers are removed when the layout accesses its states, they are only released
+		// by the next collection
+		for (int i = 0; i < 50 && ( layout.stateCount() > kept.length || !cleared(released) ); i++) {
+			System.gc();
+			Thread.sleep(10L);
+		}
+		assertEquals(kept.length, layout.stateCount());
+		for (Reference<?> ref : released) {
+			assertNull(ref.get());
+		}
+		// the stores of the kept containers only hold their current components
+		assertTrue(maxCapacity <= ROUND * 2, maxCapacity + " slots");
+		Reference.reachabilityFence(kept);
+	}
+	
+	@Test
+	void manyComponentsThenRemoved() {
+		CompStore store = new CompStore();
+		Component[] comps = components(CYCLES / 10);
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < comps.length; i++) {
+				store.put(comps[i], CompInfo.of(i & 15, 0, 1, 1, 0.5f, 0.5f, FillMode.FILL_MAXIMUM,
+					FillMode.FILL_MAXIMUM));
+			}
+			assertTrue(store.capacity() >= comps.length);
+			for (int i = 0; i < comps.length; i++) {
+				store.remove(comps[i]);
+			}
+			assertEquals(0, store.size());
+			assertEquals(8, store.capacity());
+		}
+	}
+	
+	private static boolean cleared(List<Reference<?>> refs) {
+		for (Reference<?> ref : refs) {
+			if ( ref.get() != null ) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static Component[] components(int count) {
+		Component[] comps = new Component[count];
+		for (int i = 0; i < count; i++) {
+			comps[i] = new Component() {};
+		}
+		return comps;
+	}
+	
+}
@@ -0,0 +1,76 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.Component;
+import java.awt.Container;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks that each {@link PatGridLayout} counts its own parsed constraints
+ */
+class ConstraintCacheTest {
+	
+	@Test
+	void countersPerLayout() {
+		PatGridLayout first = new PatGridLayout();
+		PatGridLayout second = new PatGridLayout();
+		Container a = new Container();
+		a.setLayout(first);
+		Container b = new Container();
+		b.setLayout(second);
+		a.add(new Component() {}, "0 0");
+		a.add(new Component() {}, "0 0");
+		b.add(new Component() {}, "1 1");
+		
+		ConstraintCache cache = first.constraintCache();
+		assertEquals(1L, cache.hits());
+		assertEquals(1L, cache.misses());
+		assertEquals(1, cache.size());
+		assertEquals(0L, second.constraintCache().hits());
+		assertEquals(1L, second.constraintCache().misses());
+	}
+	
+	@Test
+	void sharedCache() {
+		ConstraintCache cache = new ConstraintCache(1);
+		PatGridLayout first = new PatGridLayout();
+		PatGridLayout second = new PatGridLayout();
+		first.constraintCache(cache);
+		second.constraintCache(cache);
+		Container a = new Container();
+		a.setLayout(first);
+		Container b = new Container();
+		b.setLayout(second);
+		Component ac = new Component() {};
+		Component bc = new Component() {};
+		a.add(ac, "2 3");
+		b.add(bc, "2 3");
+		
+		assertEquals(1L, cache.hits());
+		assertSame(first.constraintCache(), second.constraintCache());
+		b.add(new Component() {}, "4 5");
+		// the oldest constraint was removed
+		assertEquals(1, cache.size());
+		assertEquals(2L, cache.misses());
+	}
+	
+}
@@ -0,0 +1,108 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks that only modified bounds are set and reported to the {@link PatGridLayout#dirtyRegionListener(BiConsumer)
+ * dirty region listener}
+ */
+class DirtyRegionTest {
+	
+	private final TestComponent.Counter counter = new TestComponent.Counter();
+	private final List<Rectangle>       regions = new ArrayList<>();
+	private PatGridLayout               layout;
+	private Container                   grid;
+	private Component[]                 left;
+	private Component[]                 right;
+	
+	@BeforeEach
+	void grid() {
+		// the left column has a fixed width, the components of the growing right column are aligned to its right side
+		this.layout = new PatGridLayout("[50][grow]", "[20][20]");
+		this.grid = new Container();
+		this.grid.setLayout(this.layout);
+		this.left = new Component[2];
+		this.right = new Component[2];
+		for (int y = 0; y < 2; y++) {
+			this.left[y] = TestComponent.fixed(30, 10).count(this.counter);
+			this.right[y] = TestComponent.fixed(30, 10).count(this.counter);
+			this.grid.add(this.left[y], "0 " + y);
+			this.grid.add(this.right[y], "1 " + y + ", right");
+		}
+		this.layout.dirtyRegionListener((c, r) -> {
+			assertSame(this.grid, c);
+			this.regions.add(new Rectangle(r));
+		});
+		this.grid.setSize(200, 40);
+		this.grid.doLayout();
+		this.counter.reset();
+		this.regions.clear();
+	}
+	
+	@Test
+	void onlyTheMovedColumnIsReported() {
+		Rectangle[] leftBounds = bounds(this.left);
+		Rectangle[] oldRight = bounds(this.right);
+		this.grid.setSize(300, 40);
+		this.grid.doLayout();
+		Rectangle[] newRight = bounds(this.right);
+		Rectangle expected = oldRight[0].union(oldRight[1]).union(newRight[0]).union(newRight[1]);
+		assertEquals(2, this.counter.reshapes);
+		assertEquals(List.of(expected), this.regions);
+		assertEquals(new Rectangle(270, 0, 30, 10), newRight[0]);
+		assertEquals(new Rectangle(170, 0, 30, 10), oldRight[0]);
+		for (int i = 0; i < 2; i++) {
+			assertEquals(leftBounds[i], this.left[i].getBounds());
+			assertFalse(expected.intersects(leftBounds[i]), "the unmodified left column is in the region");
+		}
+	}
+	
+	@Test
+	void sameSizeRelayoutSetsNoBounds() {
+		this.grid.doLayout();
+		assertEquals(0, this.counter.reshapes);
+		assertEquals(List.of(), this.regions);
+		// the sizes are queried again, but the bounds do not change
+		this.layout.invalidateLayout(this.grid);
+		this.grid.doLayout();
+		assertEquals(0, this.counter.reshapes);
+		assertEquals(List.of(), this.regions);
+	}
+	
+	private static Rectangle[] bounds(Component[] comps) {
+		Rectangle[] result = new Rectangle[comps.length];
+		for (int i = 0; i < comps.length; i++) {
+			result[i] = comps[i].getBounds();
+		}
+		return result;
+	}
+	
+}
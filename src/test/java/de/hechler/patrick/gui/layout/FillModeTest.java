@@ -0,0 +1,120 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import de.hechler.patrick.gui.layout.FillMode.MulFillMode;
+
+/**
+ * checks the immutable and interned {@link MulFillMode} instances
+ * <p>
+ * the interned instances are shared by the complete JVM, so the test which fills the intern table runs last
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FillModeTest {
+	
+	private static final int MAX_INTERNED = 1024;
+	
+	@Test
+	@Order(1)
+	void simpleBackedModesAreInterned() {
+		MulFillMode half = FillMode.immutableFillMode(0.5f, FillMode.FILL_MAXIMUM);
+		assertTrue(half.isImmutable());
+		assertSame(half, FillMode.immutableFillMode(0.5f, FillMode.FILL_MAXIMUM));
+		assertSame(half, MulFillMode.intern(0.5f, FillMode.FILL_MAXIMUM));
+		assertSame(half, MulFillMode.immutable(FillMode.fillMode(0.5f, FillMode.FILL_MAXIMUM)));
+		assertSame(half, CompInfo.parse("0 0, max * 0.5").immutable().widthMode());
+		assertNotSame(half, FillMode.immutableFillMode(0.5f, FillMode.FILL_COMPLETLY));
+		// an immutable nested mode of a simple mode is shareable, too
+		MulFillMode nested = FillMode.immutableFillMode(2f, half);
+		assertSame(nested, FillMode.immutableFillMode(2f, FillMode.immutableFillMode(0.5f, FillMode.FILL_MAXIMUM)));
+		assertSame(half, nested.type);
+	}
+	
+	@Test
+	@Order(1)
+	void otherModesAreNotShared() {
+		FillMode custom = (comp, info, maxWidth, maxHeight, width) -> 5;
+		MulFillMode a = FillMode.immutableFillMode(2f, custom);
+		MulFillMode b = FillMode.immutableFillMode(2f, custom);
+		assertTrue(a.isImmutable());
+		assertNotSame(a, b);
+		assertEquals(a, b);
+	}
+	
+	@Test
+	@Order(1)
+	void immutableModesCanNotBeSet() {
+		MulFillMode mode = FillMode.immutableFillMode(0.25f, FillMode.FILL_COMPLETLY);
+		assertThrows(UnsupportedOperationException.class, () -> mode.set(FillMode.FILL_MAXIMUM, 0.5f));
+		assertEquals(0.25f, mode.mul());
+		assertSame(FillMode.FILL_COMPLETLY, mode.type);
+		MulFillMode modifiable = FillMode.fillMode(0.25f, FillMode.FILL_COMPLETLY);
+		assertFalse(modifiable.isImmutable());
+		modifiable.set(FillMode.FILL_MAXIMUM, 0.5f);
+		assertEquals(0.5f, modifiable.mul());
+	}
+	
+	@Test
+	@Order(1)
+	void immutableCopiesModifiableNestedModes() {
+		MulFillMode inner = FillMode.fillMode(0.5f, FillMode.FILL_MAXIMUM);
+		MulFillMode outer = FillMode.fillMode(3f, inner);
+		FillMode copy = MulFillMode.immutable(outer);
+		MulFillMode mfm = (MulFillMode) copy;
+		assertTrue(mfm.isImmutable());
+		assertNotSame(inner, mfm.type);
+		assertSame(FillMode.immutableFillMode(0.5f, FillMode.FILL_MAXIMUM), mfm.type);
+		// the modes are compared by their values
+		assertEquals(outer, copy);
+		assertEquals(copy, outer);
+		assertEquals(copy.hashCode(), outer.hashCode());
+		inner.set(FillMode.FILL_MAXIMUM, 0.25f);
+		assertEquals(0.5f, ( (MulFillMode) mfm.type ).mul());
+		assertNotEquals(outer, copy);
+		assertSame(copy, MulFillMode.immutable(copy));
+	}
+	
+	@Test
+	@Order(2)
+	void internTableIsLimited() {
+		MulFillMode interned = FillMode.immutableFillMode(0.75f, FillMode.FILL_PREFERRED);
+		for (int i = 0; i < MAX_INTERNED; i++) {
+			FillMode.immutableFillMode(1000f + i, FillMode.FILL_PREFERRED);
+		}
+		MulFillMode a = FillMode.immutableFillMode(0.125f, FillMode.FILL_PREFERRED);
+		MulFillMode b = FillMode.immutableFillMode(0.125f, FillMode.FILL_PREFERRED);
+		assertNotSame(a, b);
+		assertEquals(a, b);
+		assertTrue(a.isImmutable());
+		// the already interned instances are still shared
+		assertSame(interned, FillMode.immutableFillMode(0.75f, FillMode.FILL_PREFERRED));
+	}
+	
+}
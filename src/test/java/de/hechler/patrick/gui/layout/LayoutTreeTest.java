@@ -0,0 +1,98 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.swing.JPanel;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks that a {@link LayoutTree} applies the plans of the nested {@link Container Containers}
+ */
+class LayoutTreeTest {
+	
+	@Test
+	void invalidatedChildPlansAreApplied() {
+		JPanel root = tree();
+		root.setSize(300, 200);
+		LayoutTree tree = LayoutTree.snapshot(root).plan(ForkJoinPool.commonPool());
+		// with a peer, resizing a container invalidates it
+		for (Component c : root.getComponents()) {
+			c.invalidate();
+		}
+		assertTrue(tree.apply());
+		
+		JPanel expected = tree();
+		expected.setSize(300, 200);
+		layout(expected);
+		assertSameBounds(expected, root);
+	}
+	
+	@Test
+	void modifiedChildPlansAreSkipped() {
+		JPanel root = tree();
+		root.setSize(300, 200);
+		LayoutTree tree = LayoutTree.snapshot(root).plan(ForkJoinPool.commonPool());
+		Container child = (Container) root.getComponent(1);
+		( (TestComponent) child.getComponent(0) ).heights(30);
+		child.invalidate();
+		assertFalse(tree.apply());
+		assertEquals(new Dimension(0, 0), child.getComponent(0).getSize());
+	}
+	
+	private static JPanel tree() {
+		JPanel root = new JPanel(new PatGridLayout(0, 0, "[grow][grow]", "[grow]"));
+		for (int i = 0; i < 2; i++) {
+			JPanel child = new JPanel(new PatGridLayout(0, 0, "[grow]", "[grow][grow][grow]"));
+			for (int r = 0; r < 3; r++) {
+				child.add(TestComponent.row(10 + r * 5 + i), "0 " + r);
+			}
+			root.add(child, i + " 0");
+		}
+		return root;
+	}
+	
+	private static void layout(Container parent) {
+		parent.doLayout();
+		for (Component c : parent.getComponents()) {
+			if ( c instanceof Container sub ) {
+				layout(sub);
+			}
+		}
+	}
+	
+	private static void assertSameBounds(Container expected, Container actual) {
+		for (int i = 0; i < expected.getComponentCount(); i++) {
+			Component e = expected.getComponent(i);
+			Component a = actual.getComponent(i);
+			assertEquals(e.getBounds(), a.getBounds());
+			if ( e instanceof Container ec ) {
+				assertSameBounds(ec, (Container) a);
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,81 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks the rules used to solve the block sizes
+ */
+class SizingTest {
+	
+	@Test
+	void spanGrowsOnlyByTheMissingSize() {
+		PatGridLayout layout = new PatGridLayout(0, 0);
+		Container c = new Container();
+		c.setLayout(layout);
+		c.add(TestComponent.fixed(100, 10), "0 0");
+		c.add(TestComponent.fixed(10, 10), "1 0");
+		TestComponent span = TestComponent.fixed(120, 10);
+		c.add(span, "0 1 2 1");
+		// the columns are 110 pixels wide, so the span only needs 10 more pixels
+		assertEquals(new Dimension(120, 20), layout.minimumLayoutSize(c));
+		c.setSize(120, 20);
+		c.doLayout();
+		assertEquals(120, span.getWidth());
+	}
+	
+	@Test
+	void spanGetsItsMinimumSize() {
+		PatGridLayout layout = new PatGridLayout(5, 5);
+		Container c = new Container();
+		c.setLayout(layout);
+		c.add(TestComponent.fixed(100, 10), "0 0");
+		c.add(TestComponent.fixed(10, 10), "1 0");
+		TestComponent span = TestComponent.fixed(120, 10);
+		c.add(span, "0 1 2 1");
+		// each row needs 10 pixels and the empty space
+		assertEquals(new Dimension(135, 35), layout.minimumLayoutSize(c));
+		c.setSize(135, 35);
+		c.doLayout();
+		assertEquals(new Rectangle(5, 20, 120, 10), span.getBounds());
+	}
+	
+	@Test
+	void freeSpaceKeepsBlockMaximum() {
+		BlockInfo[] blocks = { new BlockInfo(10, 20), new BlockInfo(10, 12) };
+		PatGridLayout layout = new PatGridLayout(0, 0, blocks, new BlockInfo[] { new BlockInfo(10, 10) });
+		Container c = new Container();
+		c.setLayout(layout);
+		TestComponent first = new TestComponent(10, 10, 10, 10, 1000, 1000);
+		TestComponent second = new TestComponent(10, 10, 10, 10, 1000, 1000);
+		c.add(first, "0 0");
+		c.add(second, "1 0");
+		c.setSize(30, 10);
+		c.doLayout();
+		// each block gets 5 pixels, the second block can only use 2 of them, so the first block gets the rest
+		assertEquals(new Rectangle(0, 0, 18, 10), first.getBounds());
+		assertEquals(new Rectangle(18, 0, 12, 10), second.getBounds());
+	}
+	
+}
@@ -0,0 +1,87 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Container;
+
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks the {@link LayoutSnapshot snapshots} of a {@link PatGridLayout}
+ */
+class SnapshotTest {
+	
+	@Test
+	void virtualizedSnapshotUsesMeasuredSizes() {
+		PatGridLayout layout = new PatGridLayout(0, 1, "[grow]", ":[grow]");
+		layout.virtualized(true);
+		JPanel panel = new JPanel(layout);
+		for (int i = 0; i < 500; i++) {
+			panel.add(TestComponent.row(10 + ( i % 7 ) * 3), "0 " + i);
+		}
+		JViewport port = new JViewport();
+		port.setView(panel);
+		port.setSize(100, 100);
+		panel.setSize(100, 5000);
+		panel.doLayout();
+		
+		LayoutSnapshot snap = layout.snapshot(panel);
+		assertNull(snap.x);
+		for (int i = 0; i < 500; i++) {
+			assertEquals(10 + ( i % 7 ) * 3, snap.hints[i * FillMode.SizeHints.VALUES + 3]);
+		}
+		assertTrue(layout.apply(snap.plan()));
+		PatGridLayout plain = new PatGridLayout(0, 1, "[grow]", ":[grow]");
+		JPanel expected = new JPanel(plain);
+		for (int i = 0; i < 500; i++) {
+			expected.add(TestComponent.row(10 + ( i % 7 ) * 3), "0 " + i);
+		}
+		expected.setSize(100, 5000);
+		expected.doLayout();
+		for (int i = 0; i < 500; i++) {
+			assertEquals(expected.getComponent(i).getBounds(), panel.getComponent(i).getBounds());
+		}
+	}
+	
+	@Test
+	void nestedModifiableModesAreComparedByValue() {
+		PatGridLayout layout = new PatGridLayout();
+		Container c = new Container();
+		c.setLayout(layout);
+		FillMode.MulFillMode inner = FillMode.fillMode(0.5f, FillMode.FILL_MAXIMUM);
+		c.add(TestComponent.row(10), new CompInfo(0, 0, 1, 1, 0f, 0f, FillMode.fillMode(1f, inner),
+			FillMode.FILL_PREFERRED));
+		c.setSize(100, 10);
+		LayoutSnapshot snap = layout.snapshot(c);
+		layout.invalidateLayout(c);
+		// the plan copied the nested mode, it is still equal to the mode of the container
+		assertTrue(layout.apply(snap.plan()));
+		snap = layout.snapshot(c);
+		inner.set(FillMode.FILL_MAXIMUM, 0.25f);
+		layout.invalidateLayout(c);
+		assertFalse(layout.apply(snap.plan()));
+	}
+	
+}
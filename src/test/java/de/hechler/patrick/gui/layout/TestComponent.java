@@ -0,0 +1,121 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import java.awt.Component;
+import java.awt.Dimension;
+
+/**
+ * a {@link Component} with fixed minimum, preferred and maximum sizes
+ * <p>
+ * when a {@link Counter} is set, the queried sizes and the set bounds are counted
+ */
+class TestComponent extends Component {
+	
+	private static final long serialVersionUID = 1L;
+	
+	int minWidth;
+	int minHeight;
+	int prefWidth;
+	int prefHeight;
+	int maxWidth;
+	int maxHeight;
+	
+	private transient Counter counter;
+	
+	TestComponent(int minWidth, int minHeight, int prefWidth, int prefHeight, int maxWidth, int maxHeight) {
+		this.minWidth = minWidth;
+		this.minHeight = minHeight;
+		this.prefWidth = prefWidth;
+		this.prefHeight = prefHeight;
+		this.maxWidth = maxWidth;
+		this.maxHeight = maxHeight;
+	}
+	
+	/**
+	 * creates a {@link TestComponent} which always has the given size
+	 */
+	static TestComponent fixed(int width, int height) {
+		return new TestComponent(width, height, width, height, width, height);
+	}
+	
+	/**
+	 * creates a {@link TestComponent} with the given height, which can grow horizontally
+	 */
+	static TestComponent row(int height) {
+		return new TestComponent(10, height, 20, height, 1000, height);
+	}
+	
+	/**
+	 * sets the {@link Counter} of this component
+	 */
+	TestComponent count(Counter c) {
+		this.counter = c;
+		return this;
+	}
+	
+	/**
+	 * sets the minimum, preferred and maximum height
+	 */
+	void heights(int height) {
+		this.minHeight = height;
+		this.prefHeight = height;
+		this.maxHeight = height;
+	}
+	
+	@Override
+	public Dimension getMinimumSize() {
+		if ( this.counter != null ) this.counter.queries++;
+		return new Dimension(this.minWidth, this.minHeight);
+	}
+	
+	@Override
+	public Dimension getPreferredSize() {
+		if ( this.counter != null ) this.counter.queries++;
+		return new Dimension(this.prefWidth, this.prefHeight);
+	}
+	
+	@Override
+	public Dimension getMaximumSize() {
+		if ( this.counter != null ) this.counter.queries++;
+		return new Dimension(this.maxWidth, this.maxHeight);
+	}
+	
+	@Override
+	@SuppressWarnings( "deprecation" )
+	public void reshape(int x, int y, int width, int height) {
+		if ( this.counter != null ) this.counter.reshapes++;
+		super.reshape(x, y, width, height);
+	}
+	
+	/**
+	 * counts the size queries and the {@link Component#setBounds(int, int, int, int) setBounds} calls of the
+	 * {@link TestComponent TestComponents} which use it
+	 */
+	static final class Counter {
+		
+		int queries;
+		int reshapes;
+		
+		void reset() {
+			this.queries = 0;
+			this.reshapes = 0;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,151 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * checks the helpers of the {@link TextScanner} used by the {@link CompInfo} and {@link BlockInfo} parsers
+ */
+class TextScannerTest {
+	
+	static Stream<Arguments> numbers() {
+		return Stream.of(//
+			Arguments.of("0", 0, 1), //
+			Arguments.of("7", 7, 1), //
+			Arguments.of("1234 ", 1234, 4), //
+			Arguments.of("0x1fZ", 31, 4), //
+			Arguments.of("0XFF", 255, 4), //
+			Arguments.of("0b1012", 5, 5), //
+			Arguments.of("0B1", 1, 3), //
+			Arguments.of("0178", 15, 3), //
+			Arguments.of("2147483647", Integer.MAX_VALUE, 10) //
+		);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("numbers")
+	void readsNumbers(String text, int value, int end) {
+		TextScanner sc = new TextScanner(text, 0, text.length());
+		assertEquals(value, sc.number());
+		assertEquals(end, sc.pos);
+	}
+	
+	static Stream<Arguments> fpNumbers() {
+		return Stream.of(//
+			Arguments.of("0", 0f, 1), //
+			Arguments.of("12", 12f, 2), //
+			Arguments.of("0.5", 0.5f, 3), //
+			Arguments.of(".25,", 0.25f, 3), //
+			Arguments.of("3.", 3f, 2), //
+			Arguments.of("0x10", 16f, 4), //
+			Arguments.of("010", 8f, 3), //
+			Arguments.of("0b11", 3f, 4) //
+		);
+	}
+	
+	@ParameterizedTest
+	@MethodSource("fpNumbers")
+	void readsFloatingPointNumbers(String text, float value, int end) {
+		TextScanner sc = new TextScanner(text, 0, text.length());
+		assertEquals(value, sc.fpNumber());
+		assertEquals(end, sc.pos);
+	}
+	
+	@Test
+	void invalidNumbersReportTheirIndex() {
+		assertIndex("x", 0, TextScanner::number);
+		assertIndex("", 0, TextScanner::number);
+		assertIndex("0x", 2, TextScanner::number);
+		assertIndex("0bz", 2, TextScanner::number);
+		assertIndex(".", 1, TextScanner::fpNumber);
+		assertIndex("-1", 0, TextScanner::fpNumber);
+		NumberFormatException e = assertThrows(NumberFormatException.class,
+			() -> new TextScanner("0x80000000", 0, 10).number());
+		assertTrue(e.getMessage().contains(" at index 0 "), e.getMessage());
+	}
+	
+	@Test
+	void stripAndTrimUseTheirStringDefinitions() {
+		String text = "\u0001\u2003 a b \u2003\u0001";
+		TextScanner strip = new TextScanner(text, 0, text.length());
+		strip.strip();
+		TextScanner trim = new TextScanner(text, 0, text.length());
+		trim.trim();
+		assertEquals(text.strip(), text.substring(strip.pos, strip.end));
+		assertEquals(text.trim(), text.substring(trim.pos, trim.end));
+		TextScanner empty = new TextScanner(" x ", 1, 1);
+		empty.strip();
+		assertTrue(empty.atEnd());
+	}
+	
+	@Test
+	void wordsIgnoreTheCase() {
+		TextScanner sc = new TextScanner("Fill-WIDTH=max", 0, 14);
+		assertTrue(sc.isLetter());
+		assertEquals(10, sc.word());
+		assertTrue(sc.is(0, 10, "fill-width"));
+		assertFalse(sc.is(0, 10, "fill-height"));
+		assertFalse(sc.is(0, 4, "fill-width"));
+		assertFalse(sc.isLetter());
+		assertTrue(sc.at('='));
+		sc.expect('=');
+		assertEquals(14, sc.word());
+		assertTrue(sc.is(11, 14, "max"));
+		sc.expectEnd();
+	}
+	
+	@Test
+	void whitespaceIsTheRegexClass() {
+		TextScanner sc = new TextScanner(" \t\n\u000B\f\rx\u00A0", 0, 8);
+		sc.whitespace();
+		assertEquals(6, sc.pos);
+		assertFalse(sc.isWhitespace());
+		sc.pos++;
+		// no-break space is not in \s
+		assertFalse(sc.isWhitespace());
+		assertIndex("x", 0, TextScanner::whitespace);
+	}
+	
+	@Test
+	void errorsDescribeTheInput() {
+		TextScanner sc = new TextScanner("ab", 0, 2);
+		assertEquals("invalid input: found 'b' at index 1 expected 'c' text: 'ab'", sc.error(1, "'c'").getMessage());
+		assertEquals("invalid input: found end of input at index 2 expected 'c' text: 'ab'",
+			sc.error(2, "'c'").getMessage());
+		assertIndex("ab", 0, s -> s.expect('b'));
+		assertIndex("ab", 0, TextScanner::expectEnd);
+	}
+	
+	private static void assertIndex(String text, int index, Consumer<TextScanner> action) {
+		TextScanner sc = new TextScanner(text, 0, text.length());
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> action.accept(sc));
+		assertTrue(e.getMessage().contains(" at index " + index + " "), e.getMessage());
+	}
+	
+}
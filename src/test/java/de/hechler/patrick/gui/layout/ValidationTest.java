@@ -0,0 +1,200 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JPanel;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks that each nested {@link Container} is solved at most once when a tree of {@link Container Containers} is
+ * validated
+ */
+class ValidationTest {
+	
+	private final List<Panel>         panels = new ArrayList<>();
+	private final List<TestComponent> leaves = new ArrayList<>();
+	private final TestComponent.Counter counter = new TestComponent.Counter();
+	
+	@Test
+	void oneSolvePerValidate() {
+		Panel root = panel(3);
+		root.setSize(400, 300);
+		root.validateAll();
+		int[] counts = counts();
+		for (int c : counts) {
+			assertEquals(1, c);
+		}
+		
+		// only the containers of the modified leaf are solved again
+		TestComponent leaf = this.leaves.get(0);
+		leaf.heights(leaf.prefHeight + 40);
+		leaf.invalidate();
+		root.validateAll();
+		int[] now = counts();
+		for (int i = 0; i < now.length; i++) {
+			boolean above = this.panels.get(i).isAncestorOf(leaf);
+			assertEquals(counts[i] + ( above ? 1 : 0 ), now[i], "container " + i);
+		}
+		counts = now;
+		
+		// the solved sizes do not depend on the size of the containers
+		root.setSize(500, 350);
+		root.validateAll();
+		now = counts();
+		for (int i = 0; i < now.length; i++) {
+			assertEquals(counts[i], now[i], "container " + i);
+		}
+		counts = now;
+		
+		for (TestComponent l : this.leaves) {
+			l.heights(l.prefHeight + 3);
+			l.invalidate();
+		}
+		root.validateAll();
+		now = counts();
+		for (int i = 0; i < now.length; i++) {
+			assertEquals(counts[i] + 1, now[i], "container " + i);
+		}
+		assertSameBounds(root);
+	}
+	
+	@Test
+	void otherHierarchiesKeepTheEpoch() {
+		Panel root = panel(2);
+		root.setSize(400, 300);
+		root.validateAll();
+		ValidationTest other = new ValidationTest();
+		Panel unrelated = other.panel(2);
+		unrelated.setSize(400, 300);
+		unrelated.validateAll();
+		
+		// the nested containers are only invalidated by the layout of their parent
+		root.setSize(500, 350);
+		root.doLayout();
+		// a modification in another hierarchy does not require them to verify their sizes
+		TestComponent leaf = other.leaves.get(0);
+		leaf.heights(leaf.prefHeight + 40);
+		leaf.invalidate();
+		this.counter.reset();
+		root.validateAll();
+		assertEquals(0, this.counter.queries);
+		
+		other.counter.reset();
+		unrelated.validateAll();
+		assertTrue(other.counter.queries > 0);
+	}
+	
+	private Panel panel(int depth) {
+		Panel p = new Panel(new PatGridLayout(0, 0, "[grow][grow]", "[grow]:[grow]"));
+		this.panels.add(p);
+		for (int i = 0; i < 4; i++) {
+			String constraint = ( i % 2 ) + " " + ( i / 2 );
+			if ( depth > 1 ) {
+				p.add(panel(depth - 1), constraint);
+			} else {
+				TestComponent leaf = TestComponent.row(10 + this.leaves.size()).count(this.counter);
+				this.leaves.add(leaf);
+				p.add(leaf, constraint);
+			}
+		}
+		return p;
+	}
+	
+	private int[] counts() {
+		int[] counts = new int[this.panels.size()];
+		for (int i = 0; i < counts.length; i++) {
+			Panel p = this.panels.get(i);
+			counts[i] = ( (PatGridLayout) p.getLayout() ).solveCount(p);
+		}
+		return counts;
+	}
+	
+	// compares the bounds with the ones of an equal tree laid out with new layouts
+	private void assertSameBounds(Panel root) {
+		ValidationTest fresh = new ValidationTest();
+		Panel expected = fresh.panel(3);
+		for (int i = 0; i < this.leaves.size(); i++) {
+			fresh.leaves.get(i).heights(this.leaves.get(i).prefHeight);
+		}
+		expected.setSize(root.getSize());
+		expected.validateAll();
+		for (int i = 0; i < this.leaves.size(); i++) {
+			assertEquals(fresh.leaves.get(i).getBounds(), this.leaves.get(i).getBounds());
+		}
+		for (int i = 0; i < this.panels.size(); i++) {
+			assertEquals(fresh.panels.get(i).getBounds(), this.panels.get(i).getBounds());
+		}
+	}
+	
+	/**
+	 * behaves like a displayed {@link JPanel}: it invalidates itself when it is resized and
+	 * {@link #validateAll()} lays out the invalid {@link Container Containers} from the root to the leaves
+	 */
+	static class Panel extends JPanel {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private boolean validated;
+		
+		Panel(PatGridLayout layout) {
+			super(layout);
+		}
+		
+		@Override
+		public boolean isValid() {
+			return this.validated;
+		}
+		
+		@Override
+		public void invalidate() {
+			super.invalidate();
+			this.validated = false;
+		}
+		
+		@Override
+		public void setBounds(int x, int y, int width, int height) {
+			boolean resized = width != getWidth() || height != getHeight();
+			super.setBounds(x, y, width, height);
+			if ( resized ) {
+				invalidate();
+			}
+		}
+		
+		void validateAll() {
+			if ( !this.validated ) {
+				doLayout();
+			}
+			for (Component c : getComponents()) {
+				if ( c instanceof Panel p ) {
+					p.validateAll();
+				}
+			}
+			this.validated = true;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,185 @@
+// This file is part of the Pat-Layout Project
+// DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+// Copyright (C) 2023 Patrick Hechler
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Affero General Public License as published
+// by the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Affero General Public License for more details.
+//
+// You should have received a copy of the GNU Affero General Public License
+// along with this program. If not, see <https://www.gnu.org/licenses/>.
+package de.hechler.patrick.gui.layout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.lang.reflect.InvocationTargetException;
+
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.event.ChangeListener;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks the {@link PatGridLayout#virtualized(boolean) virtualized} mode of a {@link PatGridLayout}
+ */
+class VirtualizedTest {
+	
+	private final TestComponent.Counter counter = new TestComponent.Counter();
+	
+	@Test
+	void scrollingPlacesOnlyTheEnteringRows() {
+		PatGridLayout layout = new PatGridLayout(0, 1, "[grow]", ":[grow]");
+		layout.virtualized(true);
+		View view = view(layout, 2000, false);
+		int solves = layout.solveCount(view);
+		int overscan = layout.overscan();
+		this.counter.reset();
+		view.port.setViewPosition(new Point(0, 3000));
+		int entering = entering(view, 3000 - overscan, 3100 + overscan, -overscan, 100 + overscan);
+		assertTrue(entering > 0);
+		// the estimated sizes are exact, so the axes are not solved again
+		assertEquals(solves, layout.solveCount(view));
+		assertEquals(entering, this.counter.reshapes);
+		assertEquals(entering * 3, this.counter.queries);
+		// the rows which are still in the region are not touched
+		this.counter.reset();
+		view.port.setViewPosition(new Point(0, 3040));
+		entering = entering(view, 3040 - overscan, 3140 + overscan, 3000 - overscan, 3100 + overscan);
+		assertTrue(entering > 0);
+		assertEquals(entering, this.counter.reshapes);
+		assertEquals(entering * 3, this.counter.queries);
+		assertEquals(solves, layout.solveCount(view));
+	}
+	
+	@Test
+	void scrollingSolvesAgainWhenTheEstimateIsWrong() {
+		PatGridLayout layout = new PatGridLayout(0, 1, "[grow]", ":[grow]");
+		layout.virtualized(true);
+		View view = view(layout, 2000, true);
+		int solves = layout.solveCount(view);
+		view.port.setViewPosition(new Point(0, 3000));
+		assertTrue(layout.solveCount(view) > solves);
+		
+		Rectangle visible = view.port.getViewRect();
+		Rectangle[] bounds = new Rectangle[2000];
+		for (int i = 0; i < 2000; i++) {
+			bounds[i] = view.getComponent(i).getBounds();
+		}
+		// a complete layout with the same sizes does not move the visible rows
+		view.doLayout();
+		int compared = 0;
+		for (int i = 0; i < 2000; i++) {
+			Rectangle b = view.getComponent(i).getBounds();
+			if ( b.intersects(visible) ) {
+				assertEquals(b, bounds[i]);
+				compared++;
+			}
+		}
+		assertTrue(compared > 0);
+	}
+	
+	@Test
+	void relayoutVisitsOnlyTheRegion() {
+		PatGridLayout layout = new PatGridLayout(0, 1, "[grow]", ":[grow]");
+		layout.virtualized(true);
+		View view = view(layout, 20_000, false);
+		view.port.setViewPosition(new Point(0, 100_000));
+		int region = entering(view, 100_000 - layout.overscan(), 100_100 + layout.overscan(), 0, 0);
+		assertTrue(region > 0);
+		
+		view.accessed = 0;
+		view.listenerSearches = 0;
+		this.counter.reset();
+		view.doLayout();
+		assertEquals(0, this.counter.reshapes);
+		// each component of the region is measured and placed, the other components are not accessed
+		assertTrue(view.accessed <= region * 2, view.accessed + " accessed components");
+		assertEquals(0, view.listenerSearches);
+		
+		// after the sizes changed, the components placed outside of the region are visited once
+		view.setSize(120, view.getHeight());
+		view.doLayout();
+		view.accessed = 0;
+		view.doLayout();
+		assertTrue(view.accessed <= region * 2, view.accessed + " accessed components");
+	}
+	
+	// the number of components in the region, which were not in the old region
+	private static int entering(View view, int top, int bottom, int oldTop, int oldBottom) {
+		int count = 0;
+		for (int i = 0; i < view.getComponentCount(); i++) {
+			Rectangle b = view.getComponent(i).getBounds();
+			if ( b.y < bottom && b.y + b.height > top && ( b.y >= oldBottom || b.y + b.height <= oldTop ) ) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	private static int height(int i, boolean varying) {
+		return varying ? 10 + ( i % 7 ) * 3 : 15;
+	}
+	
+	private View view(PatGridLayout layout, int rows, boolean varying) {
+		View view = new View(layout);
+		for (int i = 0; i < rows; i++) {
+			view.add(TestComponent.row(height(i, varying)).count(this.counter), "0 " + i);
+		}
+		view.port.setView(view);
+		view.port.setSize(100, 100);
+		view.setSize(100, view.getPreferredSize().height);
+		view.doLayout();
+		// the resize event of the view makes the JViewport notify its listeners on the event dispatch thread
+		try {
+			EventQueue.invokeAndWait(() -> {});
+		} catch ( InterruptedException | InvocationTargetException e ) {
+			throw new AssertionError(e);
+		}
+		return view;
+	}
+	
+	// counts the accessed components and the searches of the viewport listeners
+	static class View extends JPanel {
+		
+		private static final long serialVersionUID = 1L;
+		
+		final JViewport port = new JViewport() {
+			
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			public ChangeListener[] getChangeListeners() {
+				View.this.listenerSearches++;
+				return super.getChangeListeners();
+			}
+			
+		};
+		
+		int accessed;
+		int listenerSearches;
+		
+		View(PatGridLayout layout) {
+			super(layout);
+		}
+		
+		@Override
+		public Component getComponent(int n) {
+			this.accessed++;
+			return super.getComponent(n);
+		}
+		
+	}
+	
+}